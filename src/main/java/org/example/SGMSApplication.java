@@ -3,9 +3,11 @@ package org.example;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("org.example.mapper")  // 扫描所有Mapper接口
+@EnableScheduling  // 定时刷新内存索引
 public class SGMSApplication {
     public static void main(String[] args) {
         SpringApplication.run(SGMSApplication.class, args);
@@ -0,0 +1,216 @@
+package org.example.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import org.example.entity.Course;
+import org.example.mapper.CourseMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 课程归属索引（courseId → teacherId，teacherId → 有序课程ID数组）
+ * 课程归属极少变化：启动时全量加载，定时全量刷新，课程写入后调用evict/refresh立即生效；
+ * 权限校验由数据库往返变为内存查找，快照未覆盖的新课程按单行查询补充
+ */
+@Component
+public class CourseOwnershipCache {
+    private static final Logger logger = LoggerFactory.getLogger(CourseOwnershipCache.class);
+
+    private static final int[] EMPTY = new int[0];
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    // 不可变快照，刷新时整体替换
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // 快照之后单行加载/失效的课程（下次全量刷新时清空）
+    private final Map<Integer, Long> overlay = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private volatile long lastRefreshTime;
+
+    /**
+     * 启动预热（数据库不可用时仅记录日志，之后按需单行加载）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("课程归属索引预热失败，将按需加载：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时全量刷新（兜底处理绕过应用直接修改course表的情况）
+     */
+    @Scheduled(fixedDelayString = "${sgms.course-ownership.refresh-interval:300000}",
+            initialDelayString = "${sgms.course-ownership.refresh-interval:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("课程归属索引刷新失败，继续使用旧快照：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 全量重建快照（仅查询 id, teacher_id 两列）
+     */
+    public synchronized void refresh() {
+        List<Course> courses = courseMapper.selectList(new LambdaQueryWrapper<Course>()
+                .select(Course::getId, Course::getTeacherId));
+        Map<Integer, Long> teacherByCourse = new HashMap<>(courses.size() * 2);
+        Map<Long, int[]> coursesByTeacher = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        for (Course course : courses) {
+            teacherByCourse.put(course.getId().intValue(), course.getTeacherId());
+            if (course.getTeacherId() != null) {
+                sizes.merge(course.getTeacherId(), 1, Integer::sum);
+            }
+        }
+        Map<Long, Integer> filled = new HashMap<>();
+        for (Course course : courses) {
+            Long teacherId = course.getTeacherId();
+            if (teacherId == null) {
+                continue;
+            }
+            int[] ids = coursesByTeacher.computeIfAbsent(teacherId, k -> new int[sizes.get(k)]);
+            ids[filled.merge(teacherId, 1, Integer::sum) - 1] = course.getId().intValue();
+        }
+        coursesByTeacher.values().forEach(Arrays::sort);
+
+        this.snapshot = new Snapshot(teacherByCourse, coursesByTeacher);
+        overlay.clear();
+        refreshCount.incrementAndGet();
+        lastRefreshTime = System.currentTimeMillis();
+        logger.info("课程归属索引已刷新：课程数={}, 教师数={}", teacherByCourse.size(), coursesByTeacher.size());
+    }
+
+    /**
+     * 课程写入（新增/改授课教师/删除）后失效单个课程，下次访问时单行加载
+     * @param courseId 课程ID
+     */
+    public void evict(Integer courseId) {
+        overlay.remove(courseId);
+        // 教师 → 课程数组无法局部修改，改为重建快照
+        refresh();
+    }
+
+    /**
+     * 查询课程授课教师
+     * @param courseId 课程ID
+     * @return 教师ID；课程不存在或未分配教师时返回null
+     */
+    public Long ownerOf(Integer courseId) {
+        if (courseId == null) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        if (current.teacherByCourse.containsKey(courseId)) {
+            hitCount.incrementAndGet();
+            return current.teacherByCourse.get(courseId);
+        }
+        Long cached = overlay.get(courseId);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            return cached;
+        }
+        // 快照之后新建的课程：单行加载（不存在的课程不缓存）
+        missCount.incrementAndGet();
+        Course course = courseMapper.selectOne(new LambdaQueryWrapper<Course>()
+                .select(Course::getId, Course::getTeacherId)
+                .eq(Course::getId, courseId));
+        if (course == null || course.getTeacherId() == null) {
+            return null;
+        }
+        overlay.put(courseId, course.getTeacherId());
+        return course.getTeacherId();
+    }
+
+    /**
+     * 判断课程是否由该教师授课
+     */
+    public boolean isOwner(Long teacherId, Integer courseId) {
+        return teacherId != null && teacherId.equals(ownerOf(courseId));
+    }
+
+    /**
+     * 教师授课课程ID（升序，只读；合并快照之后单行加载的课程）
+     * @param teacherId 教师ID
+     * @return 课程ID数组
+     */
+    public int[] coursesOf(Long teacherId) {
+        int[] ids = snapshot.coursesByTeacher.get(teacherId);
+        if (ids == null) {
+            ids = EMPTY;
+        }
+        if (overlay.isEmpty() || teacherId == null) {
+            return ids;
+        }
+        // 快照之后新建的课程只在overlay中（ownerOf先查快照，两者不重叠）
+        int[] extra = overlay.entrySet().stream()
+                .filter(e -> teacherId.equals(e.getValue()))
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+        if (extra.length == 0) {
+            return ids;
+        }
+        int[] merged = Arrays.copyOf(ids, ids.length + extra.length);
+        System.arraycopy(extra, 0, merged, ids.length, extra.length);
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * 快照版本（每次全量刷新递增；课程名称、学分等列随定时刷新生效，供课程列表ETag使用）
+     */
+    public long version() {
+        return refreshCount.get();
+    }
+
+    /**
+     * 命中/未命中等运行指标
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        long hits = hitCount.get();
+        long misses = missCount.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("courseCount", current.teacherByCourse.size());
+        stats.put("teacherCount", current.coursesByTeacher.size());
+        stats.put("overlaySize", overlay.size());
+        stats.put("hitCount", hits);
+        stats.put("missCount", misses);
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("refreshCount", refreshCount.get());
+        stats.put("lastRefreshTime", lastRefreshTime);
+        return stats;
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of());
+
+        final Map<Integer, Long> teacherByCourse;
+        final Map<Long, int[]> coursesByTeacher;
+
+        Snapshot(Map<Integer, Long> teacherByCourse, Map<Long, int[]> coursesByTeacher) {
+            this.teacherByCourse = teacherByCourse;
+            this.coursesByTeacher = coursesByTeacher;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import jakarta.annotation.PostConstruct;
+import org.example.utils.ScoreRankTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * 课程排名表缓存
+ * 键为 课程ID + 课程数据版本号（见ScoreDataVersion）：成绩写入只让版本变化，排名表在下一次查询时才重建（惰性），
+ * 旧版本按LRU淘汰；同一课程的并发未命中只会重建一次
+ */
+@Component
+public class CourseRankCache {
+
+    @Value("${sgms.rank-cache.ttl:600000}") // 兜底有效期（毫秒）
+    private long ttl;
+
+    @Value("${sgms.rank-cache.max-size:1000}") // 最多缓存的课程数
+    private int maxSize;
+
+    @Autowired
+    private ScoreDataVersion scoreDataVersion;
+
+    private LRUCache<String, ScoreRankTable> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = CacheUtil.newLRUCache(maxSize, ttl);
+    }
+
+    /**
+     * 读取课程排名表，未命中时调用loader重建并缓存
+     * @param courseId 课程ID
+     * @param loader 排名表构建逻辑
+     * @return 排名表
+     */
+    public ScoreRankTable get(Integer courseId, Supplier<ScoreRankTable> loader) {
+        String key = courseId + "|" + scoreDataVersion.courseVersion(courseId);
+        return cache.get(key, false, loader::get);
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+}
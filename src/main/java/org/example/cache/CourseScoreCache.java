@@ -0,0 +1,104 @@
+package org.example.cache;
+
+import jakarta.annotation.PostConstruct;
+import org.example.dto.ScoreAggregateDTO;
+import org.example.dto.ScoreDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 课程成绩读缓存（课程统计直方图、课程成绩列表）
+ * 两者都只取决于该课程的成绩，以课程数据版本（ScoreDataVersion.courseVersion）为键：
+ * 保存、删除、批量删除、导入等写入提交后版本递增，重复的看板加载直接命中内存，不访问数据库
+ */
+@Component
+public class CourseScoreCache {
+
+    @Value("${sgms.course-score-cache.max-size:2000}") // 每类最多缓存的课程数
+    private int maxSize;
+
+    @Value("${sgms.course-score-cache.ttl:0}") // 兜底有效期（毫秒），0表示只按版本失效
+    private long ttl;
+
+    @Autowired
+    private ScoreDataVersion scoreDataVersion;
+
+    private VersionedCache<ScoreAggregateDTO> aggregates;
+    private VersionedCache<List<ScoreDTO>> scoreLists;
+
+    @PostConstruct
+    public void init() {
+        this.aggregates = new VersionedCache<>("courseAggregate", maxSize, ttl);
+        this.scoreLists = new VersionedCache<>("courseScoreList", maxSize, ttl);
+    }
+
+    /**
+     * 课程统计（直方图 + 总人数）
+     * @param courseId 课程ID
+     * @param loader 加载逻辑（课程无成绩时也应返回非空对象，以便缓存）
+     */
+    public ScoreAggregateDTO getAggregate(Integer courseId, Supplier<ScoreAggregateDTO> loader) {
+        return aggregates.get(courseId, scoreDataVersion.courseVersion(courseId), loader);
+    }
+
+    /**
+     * 批量读取课程统计：命中的直接返回，未命中的一次批量加载后回填
+     * @param courseIds 课程ID
+     * @param loader 未命中课程的批量加载逻辑（课程ID → 统计）
+     * @return 课程ID → 统计（加载结果中不存在的课程不包含）
+     */
+    public Map<Integer, ScoreAggregateDTO> getAggregates(Collection<Integer> courseIds,
+                                                         Function<List<Integer>, Map<Integer, ScoreAggregateDTO>> loader) {
+        Map<Integer, ScoreAggregateDTO> result = new LinkedHashMap<>();
+        // 加载前记录版本：加载期间发生写入时以旧版本回填，不会被新版本读取命中
+        Map<Integer, Long> missed = new HashMap<>();
+        for (Integer courseId : courseIds) {
+            long version = scoreDataVersion.courseVersion(courseId);
+            ScoreAggregateDTO cached = aggregates.getIfPresent(courseId, version);
+            if (cached != null) {
+                result.put(courseId, cached);
+            } else {
+                missed.put(courseId, version);
+            }
+        }
+        if (!missed.isEmpty()) {
+            Map<Integer, ScoreAggregateDTO> loaded = loader.apply(List.copyOf(missed.keySet()));
+            for (Map.Entry<Integer, Long> entry : missed.entrySet()) {
+                ScoreAggregateDTO aggregate = loaded.get(entry.getKey());
+                if (aggregate != null) {
+                    aggregates.put(entry.getKey(), entry.getValue(), aggregate);
+                    result.put(entry.getKey(), aggregate);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 课程成绩列表（只读）
+     * @param courseId 课程ID
+     * @param loader 加载逻辑
+     */
+    public List<ScoreDTO> getScoreList(Integer courseId, Supplier<List<ScoreDTO>> loader) {
+        return scoreLists.get(courseId, scoreDataVersion.courseVersion(courseId), () -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * 运行指标
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("aggregate", aggregates.getStats());
+        stats.put("scoreList", scoreLists.getStats());
+        return stats;
+    }
+}
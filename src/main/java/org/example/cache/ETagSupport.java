@@ -0,0 +1,81 @@
+package org.example.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP条件请求（强ETag / 304）
+ * ETag由 启动标识 + 数据版本号 + 请求参数 计算：版本号只存在于内存、重启后从0开始，
+ * 启动标识保证重启前发出的ETag不会误命中；304在调用任何Mapper之前返回，省去查询与JSON序列化
+ * 用法：先 tag(...) → isNotModified 命中则返回null；成功生成响应后再 apply 写入ETag（错误响应不带ETag，避免被客户端缓存）
+ */
+@Component
+public class ETagSupport {
+
+    // 启动标识（启动时间，36进制）
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * 生成强ETag
+     * @param parts 资源名、数据版本号及影响响应内容的参数
+     * @return 带引号的ETag
+     */
+    public String tag(Object... parts) {
+        String source = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("|"));
+        return "\"" + bootId + "-" + DigestUtil.md5Hex16(source) + "\"";
+    }
+
+    /**
+     * If-None-Match命中时将响应置为304（同时写入ETag），控制器随后返回null即可
+     * @return 是否未修改
+     */
+    public boolean isNotModified(WebRequest request, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || !matches(ifNoneMatch, etag)) {
+            return false;
+        }
+        writeCacheControl(request);
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * 为成功响应写入ETag与Cache-Control（no-cache：允许缓存，但每次使用前须携带If-None-Match重新验证）
+     */
+    public void apply(WebRequest request, String etag) {
+        HttpServletResponse response = writeCacheControl(request);
+        if (response != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+    }
+
+    private static HttpServletResponse writeCacheControl(WebRequest request) {
+        if (!(request instanceof ServletWebRequest servletRequest) || servletRequest.getResponse() == null) {
+            return null;
+        }
+        HttpServletResponse response = servletRequest.getResponse();
+        // 已设置Cache-Control时Spring Security不再写入默认的no-store
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        return response;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag) || value.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
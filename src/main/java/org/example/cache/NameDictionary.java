@@ -0,0 +1,281 @@
+package org.example.cache;
+
+import org.example.dto.CourseNameDTO;
+import org.example.dto.ScoreDTO;
+import org.example.dto.StudentDirectoryDTO;
+import org.example.mapper.CourseMapper;
+import org.example.mapper.StudentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 名称字典（studentId → 学生姓名，courseId → 课程名称/授课教师姓名）
+ * 成绩窄查询只取score表列，姓名由本字典补齐，避免每行 score→student→sys_user→course→teacher→sys_user 五表联接；
+ * 快照为有序ID数组 + 平行名称数组（二分查找），启动加载、定时刷新，快照未覆盖的ID按批次单次查询补充，写入路径调用evict失效
+ */
+@Component
+public class NameDictionary {
+    private static final Logger logger = LoggerFactory.getLogger(NameDictionary.class);
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    // 不可变快照，刷新时整体替换
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // 快照之后加载/失效的条目（下次全量刷新时清空）
+    private final Map<Integer, String> studentOverlay = new ConcurrentHashMap<>();
+    private final Map<Integer, CourseNameDTO> courseOverlay = new ConcurrentHashMap<>();
+    private final Set<Integer> evictedStudents = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> evictedCourses = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong evictCount = new AtomicLong();
+    private volatile long lastRefreshTime;
+
+    /**
+     * 启动预热（数据库不可用时仅记录日志，之后按需加载）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("名称字典预热失败，将按需加载：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时全量刷新（兜底处理改名等绕过应用的修改）
+     */
+    @Scheduled(fixedDelayString = "${sgms.name-dictionary.refresh-interval:600000}",
+            initialDelayString = "${sgms.name-dictionary.refresh-interval:600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("名称字典刷新失败，继续使用旧快照：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 全量重建快照
+     */
+    public synchronized void refresh() {
+        List<StudentDirectoryDTO> students = studentMapper.selectDirectoryEntries();
+        List<CourseNameDTO> courses = courseMapper.selectCourseNames(null);
+        this.snapshot = Snapshot.of(students, courses);
+        studentOverlay.clear();
+        courseOverlay.clear();
+        evictedStudents.clear();
+        evictedCourses.clear();
+        refreshCount.incrementAndGet();
+        lastRefreshTime = System.currentTimeMillis();
+        logger.info("名称字典已刷新：学生数={}, 课程数={}", students.size(), courses.size());
+    }
+
+    /**
+     * 学生姓名变化（注册、改名）后失效，下次访问时单独加载
+     */
+    public void evictStudent(Integer studentId) {
+        ScoreDataVersion.runAfterCommit(() -> {
+            evictedStudents.add(studentId);
+            studentOverlay.remove(studentId);
+            evictCount.incrementAndGet();
+        });
+    }
+
+    /**
+     * 课程名称/授课教师变化后失效，下次访问时单独加载
+     */
+    public void evictCourse(Integer courseId) {
+        ScoreDataVersion.runAfterCommit(() -> {
+            evictedCourses.add(courseId);
+            courseOverlay.remove(courseId);
+            evictCount.incrementAndGet();
+        });
+    }
+
+    /**
+     * 为窄查询结果补齐学生姓名、课程名称与授课教师姓名（字典未覆盖的ID各一次批量查询）
+     * @param rows 仅含score表列的成绩行
+     * @return rows本身
+     */
+    public List<ScoreDTO> enrich(List<ScoreDTO> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return rows;
+        }
+        Snapshot current = snapshot;
+        Set<Integer> missingStudents = new HashSet<>();
+        Set<Integer> missingCourses = new HashSet<>();
+        for (ScoreDTO row : rows) {
+            if (row.getStudentId() != null && !hasStudent(current, row.getStudentId())) {
+                missingStudents.add(row.getStudentId());
+            }
+            if (row.getCourseId() != null && !hasCourse(current, row.getCourseId())) {
+                missingCourses.add(row.getCourseId());
+            }
+        }
+        loadStudents(missingStudents);
+        loadCourses(missingCourses);
+        hitCount.addAndGet(rows.size() * 2L - missingStudents.size() - missingCourses.size());
+        missCount.addAndGet(missingStudents.size() + missingCourses.size());
+
+        for (ScoreDTO row : rows) {
+            row.setStudentName(studentName(current, row.getStudentId()));
+            CourseNameDTO course = course(current, row.getCourseId());
+            if (course != null) {
+                row.setCourseName(course.getCourseName());
+                row.setTeacherName(course.getTeacherName());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 快照版本（每次全量刷新递增；与evictCount一起供含姓名/课程名的列表ETag使用）
+     */
+    public long version() {
+        return refreshCount.get();
+    }
+
+    /**
+     * 累计失效次数（学生改名、课程改名/换教师后递增，事务提交后生效）
+     */
+    public long evictCount() {
+        return evictCount.get();
+    }
+
+    /**
+     * 运行指标
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        long hits = hitCount.get();
+        long misses = missCount.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("studentCount", current.studentIds.length);
+        stats.put("courseCount", current.courseIds.length);
+        stats.put("studentOverlaySize", studentOverlay.size());
+        stats.put("courseOverlaySize", courseOverlay.size());
+        stats.put("hitCount", hits);
+        stats.put("missCount", misses);
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("refreshCount", refreshCount.get());
+        stats.put("evictCount", evictCount.get());
+        stats.put("lastRefreshTime", lastRefreshTime);
+        return stats;
+    }
+
+    private boolean hasStudent(Snapshot current, Integer studentId) {
+        return studentOverlay.containsKey(studentId)
+                || (!evictedStudents.contains(studentId) && Arrays.binarySearch(current.studentIds, studentId) >= 0);
+    }
+
+    private boolean hasCourse(Snapshot current, Integer courseId) {
+        return courseOverlay.containsKey(courseId)
+                || (!evictedCourses.contains(courseId) && Arrays.binarySearch(current.courseIds, courseId) >= 0);
+    }
+
+    private String studentName(Snapshot current, Integer studentId) {
+        if (studentId == null) {
+            return null;
+        }
+        String name = studentOverlay.get(studentId);
+        if (name != null || evictedStudents.contains(studentId)) {
+            return name;
+        }
+        int index = Arrays.binarySearch(current.studentIds, studentId);
+        return index >= 0 ? current.studentNames[index] : null;
+    }
+
+    private CourseNameDTO course(Snapshot current, Integer courseId) {
+        if (courseId == null) {
+            return null;
+        }
+        CourseNameDTO course = courseOverlay.get(courseId);
+        if (course != null || evictedCourses.contains(courseId)) {
+            return course;
+        }
+        int index = Arrays.binarySearch(current.courseIds, courseId);
+        return index >= 0 ? current.courses[index] : null;
+    }
+
+    // 不存在的ID不缓存（每次访问都会重新查询，正常数据下不会出现）
+    private void loadStudents(Collection<Integer> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        for (StudentDirectoryDTO student : studentMapper.selectDirectoryEntriesByIds(studentIds)) {
+            if (student.getStudentName() != null) {
+                studentOverlay.put(student.getId(), student.getStudentName());
+            }
+        }
+    }
+
+    private void loadCourses(Collection<Integer> courseIds) {
+        if (courseIds.isEmpty()) {
+            return;
+        }
+        for (CourseNameDTO course : courseMapper.selectCourseNames(courseIds)) {
+            courseOverlay.put(course.getId(), course);
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = of(List.of(), List.of());
+
+        final int[] studentIds;         // 升序
+        final String[] studentNames;    // 与studentIds平行
+        final int[] courseIds;          // 升序
+        final CourseNameDTO[] courses;  // 与courseIds平行
+
+        private Snapshot(int[] studentIds, String[] studentNames, int[] courseIds, CourseNameDTO[] courses) {
+            this.studentIds = studentIds;
+            this.studentNames = studentNames;
+            this.courseIds = courseIds;
+            this.courses = courses;
+        }
+
+        static Snapshot of(List<StudentDirectoryDTO> students, List<CourseNameDTO> courseList) {
+            StudentDirectoryDTO[] sortedStudents = students.stream()
+                    .filter(s -> s.getId() != null)
+                    .sorted((a, b) -> Integer.compare(a.getId(), b.getId()))
+                    .toArray(StudentDirectoryDTO[]::new);
+            int[] studentIds = new int[sortedStudents.length];
+            String[] studentNames = new String[sortedStudents.length];
+            for (int i = 0; i < sortedStudents.length; i++) {
+                studentIds[i] = sortedStudents[i].getId();
+                studentNames[i] = sortedStudents[i].getStudentName();
+            }
+            CourseNameDTO[] courses = courseList.stream()
+                    .filter(c -> c.getId() != null)
+                    .sorted((a, b) -> Integer.compare(a.getId(), b.getId()))
+                    .toArray(CourseNameDTO[]::new);
+            int[] courseIds = new int[courses.length];
+            for (int i = 0; i < courses.length; i++) {
+                courseIds[i] = courses[i].getId();
+            }
+            return new Snapshot(studentIds, studentNames, courseIds, courses);
+        }
+    }
+}
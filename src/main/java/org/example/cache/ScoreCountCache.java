@@ -0,0 +1,49 @@
+package org.example.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 成绩分页总数缓存
+ * 键由筛选条件 + 数据版本号组成（见ScoreDataVersion），成绩写入后版本变化，旧键自然失效并按LRU淘汰；
+ * 同一键的并发未命中只会执行一次COUNT
+ */
+@Component
+public class ScoreCountCache {
+
+    @Value("${sgms.score.count-cache.ttl:300000}") // 兜底有效期（毫秒）
+    private long ttl;
+
+    @Value("${sgms.score.count-cache.max-size:5000}") // 最多缓存的筛选条件数
+    private int maxSize;
+
+    private LRUCache<String, Long> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = CacheUtil.newLRUCache(maxSize, ttl);
+    }
+
+    /**
+     * 读取总数，未命中时调用counter计算并缓存
+     * @param key 缓存键（需包含数据版本号）
+     * @param counter 总数计算逻辑
+     * @return 总数
+     */
+    public long get(String key, LongSupplier counter) {
+        return cache.get(key, false, counter::getAsLong);
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+}
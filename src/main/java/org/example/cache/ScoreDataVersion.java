@@ -0,0 +1,105 @@
+package org.example.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 成绩数据版本号（按课程、按学生、全表三个维度）
+ * 每次成绩写入后递增，缓存以版本号作为键的一部分，版本变化即视为失效，无需逐条清理
+ */
+@Component
+public class ScoreDataVersion {
+
+    // 全局单调序列：所有版本号都取自该序列，保证任意维度的新版本都大于旧版本
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Integer, Long> courseStamps = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> studentStamps = new ConcurrentHashMap<>();
+    // 全量失效时的序列值（无法确定受影响课程/学生时使用）
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * 全表版本（任何成绩写入都会变化）
+     */
+    public long tableVersion() {
+        return sequence.get();
+    }
+
+    /**
+     * 课程版本（该课程成绩写入或全量失效时变化）
+     */
+    public long courseVersion(Integer courseId) {
+        Long stamp = courseId != null ? courseStamps.get(courseId) : null;
+        return Math.max(stamp != null ? stamp : 0L, epoch.get());
+    }
+
+    /**
+     * 学生版本（该学生成绩写入或全量失效时变化）
+     */
+    public long studentVersion(Integer studentId) {
+        Long stamp = studentId != null ? studentStamps.get(studentId) : null;
+        return Math.max(stamp != null ? stamp : 0L, epoch.get());
+    }
+
+    /**
+     * 记录一次成绩写入（事务中调用时在提交后生效，避免其他请求以新版本缓存未提交前的数据）
+     * @param courseId 课程ID
+     * @param studentId 学生ID
+     */
+    public void bump(Integer courseId, Integer studentId) {
+        runAfterCommit(() -> {
+            long version = sequence.incrementAndGet();
+            if (courseId != null) {
+                courseStamps.merge(courseId, version, Math::max);
+            }
+            if (studentId != null) {
+                studentStamps.merge(studentId, version, Math::max);
+            }
+        });
+    }
+
+    /**
+     * 批量记录成绩写入（如批量导入）
+     * @param courseIds 受影响的课程ID
+     * @param studentIds 受影响的学生ID
+     */
+    public void bump(Collection<Integer> courseIds, Collection<Integer> studentIds) {
+        runAfterCommit(() -> {
+            long version = sequence.incrementAndGet();
+            for (Integer courseId : courseIds) {
+                courseStamps.merge(courseId, version, Math::max);
+            }
+            for (Integer studentId : studentIds) {
+                studentStamps.merge(studentId, version, Math::max);
+            }
+        });
+    }
+
+    /**
+     * 全量失效（所有课程、学生版本同时变化）
+     */
+    public void bumpAll() {
+        runAfterCommit(() -> epoch.accumulateAndGet(sequence.incrementAndGet(), Math::max));
+    }
+
+    /**
+     * 事务中调用时在提交后执行，否则立即执行（供各数据版本组件共用）
+     */
+    static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 学生名录版本号（student表及学生姓名变化时递增）
+ * 用于学生下拉选项等名录类数据的缓存与ETag，与成绩版本（ScoreDataVersion）相互独立
+ */
+@Component
+public class StudentDataVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * 记录一次学生名录写入（事务中调用时在提交后生效）
+     */
+    public void bump() {
+        ScoreDataVersion.runAfterCommit(version::incrementAndGet);
+    }
+}
@@ -0,0 +1,267 @@
+package org.example.cache;
+
+import org.example.dto.StudentDirectoryDTO;
+import org.example.mapper.StudentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 学生名录前缀索引（联想搜索）
+ * 学号（忽略大小写）与姓名各一份有序数组，前缀查询为二分定位 + 顺序截取前K个，耗时为微秒级且与学生总数近似无关；
+ * 启动时全量加载、定时全量刷新，学生注册提交后以写时复制方式增量插入（二分定位插入点后拼接数组，O(n)复制，不重新排序）
+ */
+@Component
+public class StudentDirectoryIndex {
+    private static final Logger logger = LoggerFactory.getLogger(StudentDirectoryIndex.class);
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    // 不可变快照，刷新/插入时整体替换
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final AtomicLong searchCount = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private volatile long lastRefreshTime;
+
+    /**
+     * 启动预热（数据库不可用时仅记录日志，等待下次定时刷新）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("学生名录索引预热失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时全量刷新（兜底处理改名、删除及绕过应用直接修改的数据）
+     */
+    @Scheduled(fixedDelayString = "${sgms.student-directory.refresh-interval:600000}",
+            initialDelayString = "${sgms.student-directory.refresh-interval:600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("学生名录索引刷新失败，继续使用旧快照：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 全量重建索引
+     */
+    public synchronized void refresh() {
+        List<StudentDirectoryDTO> entries = studentMapper.selectDirectoryEntries();
+        this.snapshot = Snapshot.of(entries.toArray(new StudentDirectoryDTO[0]));
+        refreshCount.incrementAndGet();
+        lastRefreshTime = System.currentTimeMillis();
+        logger.info("学生名录索引已刷新：学生数={}", entries.size());
+    }
+
+    /**
+     * 学生注册后增量插入（事务中调用时在提交后生效；写时复制，读请求不加锁）
+     * @param entry 新学生
+     */
+    public void add(StudentDirectoryDTO entry) {
+        ScoreDataVersion.runAfterCommit(() -> insert(entry));
+    }
+
+    private synchronized void insert(StudentDirectoryDTO entry) {
+        if (entry == null || entry.getId() == null) {
+            return;
+        }
+        Snapshot current = snapshot;
+        for (StudentDirectoryDTO existing : current.entries) {
+            if (entry.getId().equals(existing.getId())) {
+                // 已收录的学生（罕见）：按全量构建替换旧条目
+                StudentDirectoryDTO[] next = Arrays.copyOf(current.entries, current.entries.length + 1);
+                next[current.entries.length] = entry;
+                this.snapshot = Snapshot.of(next);
+                return;
+            }
+        }
+        this.snapshot = current.with(entry);
+    }
+
+    /**
+     * 前缀联想：学号前缀匹配在前（按学号），姓名前缀匹配在后（按姓名），按学生去重
+     * @param keyword 学号或姓名前缀
+     * @param limit 最多返回条数
+     * @return 匹配的学生（keyword为空时返回空列表）
+     */
+    public List<StudentDirectoryDTO> search(String keyword, int limit) {
+        if (keyword == null || keyword.trim().isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        searchCount.incrementAndGet();
+        String prefix = keyword.trim();
+        Snapshot current = snapshot;
+        Map<Integer, StudentDirectoryDTO> matches = new LinkedHashMap<>();
+        collect(current.byStudentNo, current.entries, prefix.toLowerCase(Locale.ROOT), limit, matches);
+        collect(current.byName, current.entries, prefix, limit, matches);
+        return new ArrayList<>(matches.values());
+    }
+
+    /** 索引中的学生数 */
+    public int size() {
+        return snapshot.entries.length;
+    }
+
+    /**
+     * 运行指标
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("studentCount", snapshot.entries.length);
+        stats.put("searchCount", searchCount.get());
+        stats.put("refreshCount", refreshCount.get());
+        stats.put("lastRefreshTime", lastRefreshTime);
+        return stats;
+    }
+
+    // 有序键数组中定位第一个 >= prefix 的位置，向后截取以prefix开头的条目
+    private static void collect(KeyIndex index, StudentDirectoryDTO[] entries, String prefix,
+                                int limit, Map<Integer, StudentDirectoryDTO> matches) {
+        String[] keys = index.keys;
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < keys.length && matches.size() < limit && keys[i].startsWith(prefix); i++) {
+            StudentDirectoryDTO entry = entries[index.order[i]];
+            matches.putIfAbsent(entry.getId(), entry);
+        }
+    }
+
+    // 学号键（小写）与姓名键
+    private static final Function<StudentDirectoryDTO, String> STUDENT_NO_KEY =
+            e -> e.getStudentNo() != null ? e.getStudentNo().toLowerCase(Locale.ROOT) : null;
+    private static final Function<StudentDirectoryDTO, String> NAME_KEY = StudentDirectoryDTO::getStudentName;
+
+    /**
+     * 单个字段的有序键：keys升序，order[i]为keys[i]对应条目在entries中的下标（键为空的条目不收录）
+     */
+    private static final class KeyIndex {
+        final String[] keys;
+        final int[] order;
+
+        private KeyIndex(String[] keys, int[] order) {
+            this.keys = keys;
+            this.order = order;
+        }
+
+        /**
+         * 插入一个键（二分定位到相同键之后，拼接两个数组；键为空时原样返回）
+         * @param key 键
+         * @param position 条目在entries中的下标
+         */
+        KeyIndex with(String key, int position) {
+            if (key == null || key.isEmpty()) {
+                return this;
+            }
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            String[] nextKeys = new String[keys.length + 1];
+            int[] nextOrder = new int[order.length + 1];
+            System.arraycopy(keys, 0, nextKeys, 0, low);
+            System.arraycopy(order, 0, nextOrder, 0, low);
+            nextKeys[low] = key;
+            nextOrder[low] = position;
+            System.arraycopy(keys, low, nextKeys, low + 1, keys.length - low);
+            System.arraycopy(order, low, nextOrder, low + 1, order.length - low);
+            return new KeyIndex(nextKeys, nextOrder);
+        }
+
+        KeyIndex(StudentDirectoryDTO[] entries, Function<StudentDirectoryDTO, String> keyOf) {
+            String[] all = new String[entries.length];
+            List<Integer> indexes = new ArrayList<>(entries.length);
+            for (int i = 0; i < entries.length; i++) {
+                all[i] = keyOf.apply(entries[i]);
+                if (all[i] != null && !all[i].isEmpty()) {
+                    indexes.add(i);
+                }
+            }
+            indexes.sort(Comparator.comparing(i -> all[i]));
+            this.keys = new String[indexes.size()];
+            this.order = new int[indexes.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = indexes.get(i);
+                keys[i] = all[order[i]];
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = of(new StudentDirectoryDTO[0]);
+
+        final StudentDirectoryDTO[] entries;
+        final KeyIndex byStudentNo;     // 学号（小写）
+        final KeyIndex byName;          // 姓名
+
+        private Snapshot(StudentDirectoryDTO[] entries) {
+            this(entries, new KeyIndex(entries, STUDENT_NO_KEY), new KeyIndex(entries, NAME_KEY));
+        }
+
+        private Snapshot(StudentDirectoryDTO[] entries, KeyIndex byStudentNo, KeyIndex byName) {
+            this.entries = entries;
+            this.byStudentNo = byStudentNo;
+            this.byName = byName;
+        }
+
+        /**
+         * 追加一名新学生（条目追加到末尾，已有下标不变，两个有序键各拼接一次）
+         */
+        Snapshot with(StudentDirectoryDTO entry) {
+            int position = entries.length;
+            StudentDirectoryDTO[] next = Arrays.copyOf(entries, position + 1);
+            next[position] = entry;
+            return new Snapshot(next, byStudentNo.with(STUDENT_NO_KEY.apply(entry), position),
+                    byName.with(NAME_KEY.apply(entry), position));
+        }
+
+        static Snapshot of(StudentDirectoryDTO[] entries) {
+            // 同一学生重复出现时保留靠后的一条（增量插入的数据晚于快照）
+            Set<Integer> seen = new HashSet<>();
+            List<StudentDirectoryDTO> distinct = new ArrayList<>(entries.length);
+            for (int i = entries.length - 1; i >= 0; i--) {
+                if (entries[i] != null && entries[i].getId() != null && seen.add(entries[i].getId())) {
+                    distinct.add(entries[i]);
+                }
+            }
+            return new Snapshot(distinct.toArray(new StudentDirectoryDTO[0]));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import jakarta.annotation.PostConstruct;
+import org.example.vo.Transcript;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * 学生成绩单缓存
+ * 键为 学生ID + 学生数据版本号（见ScoreDataVersion），该学生成绩写入后版本变化，旧成绩单自然失效并按LRU淘汰；
+ * 同一学生的并发未命中只会计算一次
+ */
+@Component
+public class TranscriptCache {
+
+    @Value("${sgms.transcript-cache.ttl:600000}") // 兜底有效期（毫秒）
+    private long ttl;
+
+    @Value("${sgms.transcript-cache.max-size:5000}") // 最多缓存的学生数
+    private int maxSize;
+
+    @Autowired
+    private ScoreDataVersion scoreDataVersion;
+
+    private LRUCache<String, Transcript> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = CacheUtil.newLRUCache(maxSize, ttl);
+    }
+
+    /**
+     * 读取成绩单，未命中时调用loader计算并缓存
+     * @param studentId 学生ID
+     * @param loader 成绩单计算逻辑
+     * @return 成绩单
+     */
+    public Transcript get(Integer studentId, Supplier<Transcript> loader) {
+        String key = studentId + "|" + scoreDataVersion.studentVersion(studentId);
+        return cache.get(key, false, loader::get);
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 按数据版本失效的读穿缓存
+ * 键为 业务键 + 数据版本号：写入只递增版本（见ScoreDataVersion），旧版本条目不再被命中，随LRU淘汰；
+ * 容量有上限，TTL可选（0表示不过期）；同一键的并发未命中只会执行一次加载
+ * @param <V> 缓存值类型（加载结果为null时不缓存）
+ */
+public class VersionedCache<V> {
+
+    private final String name;
+    private final LRUCache<String, V> cache;
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+
+    /**
+     * @param name 缓存名称（仅用于运行指标）
+     * @param maxSize 最大条目数
+     * @param ttl 兜底有效期（毫秒），0表示不过期
+     */
+    public VersionedCache(String name, int maxSize, long ttl) {
+        this.name = name;
+        this.cache = CacheUtil.newLRUCache(maxSize, ttl);
+        // 容量淘汰与过期清理都会回调（本类不主动删除条目）
+        this.cache.setListener((key, value) -> evictionCount.increment());
+    }
+
+    /**
+     * 读取，未命中时调用loader加载并缓存
+     * @param id 业务键
+     * @param version 当前数据版本
+     * @param loader 加载逻辑
+     * @return 缓存值
+     */
+    public V get(Object id, long version, Supplier<V> loader) {
+        return cache.get(key(id, version), false, () -> {
+            loadCount.increment();
+            return loader.get();
+        });
+    }
+
+    /**
+     * 仅读取缓存，不触发加载
+     * @return 缓存值；未命中时返回null
+     */
+    public V getIfPresent(Object id, long version) {
+        return cache.get(key(id, version), false);
+    }
+
+    /**
+     * 写入（批量加载后回填）
+     */
+    public void put(Object id, long version, V value) {
+        if (value != null) {
+            cache.put(key(id, version), value);
+        }
+    }
+
+    /**
+     * 命中/未命中/淘汰等运行指标
+     */
+    public Map<String, Object> getStats() {
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("size", cache.size());
+        stats.put("capacity", cache.capacity());
+        stats.put("timeout", cache.timeout());
+        stats.put("hitCount", hits);
+        stats.put("missCount", misses);
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        // 并发未命中合并后只加载一次：等待者计入missCount，不计入loadCount
+        stats.put("loadCount", loadCount.sum());
+        stats.put("evictionCount", evictionCount.sum());
+        return stats;
+    }
+
+    private static String key(Object id, long version) {
+        return id + "|" + version;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.example.utils.RequestMetricTags;
+
+/**
+ * Mapper语句耗时统计（MyBatis插件，拦截Executor的查询与写入）
+ * 每条语句一个计时器：sgms.mapper（mapper、statement、command、outcome + 当前请求的endpoint、role），
+ * 耗时包含SQL执行与结果映射；流式查询（ResultHandler）包含逐行回调时间。
+ * 同时作为慢语句分析器（SlowStatementProfiler，InnerInterceptor只有执行前回调）的结束通知点
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final SlowStatementProfiler slowStatementProfiler;
+
+    public MapperMetricsInterceptor(MeterRegistry meterRegistry, SlowStatementProfiler slowStatementProfiler) {
+        this.meterRegistry = meterRegistry;
+        this.slowStatementProfiler = slowStatementProfiler;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(timer(ms, outcome));
+            slowStatementProfiler.afterStatement(ms, result);
+        }
+    }
+
+    private Timer timer(MappedStatement ms, String outcome) {
+        // 语句ID形如 org.example.mapper.ScoreMapper.selectScoreRowsByCourseId
+        String id = ms.getId();
+        int methodDot = id.lastIndexOf('.');
+        int mapperDot = id.lastIndexOf('.', methodDot - 1);
+        return Timer.builder("sgms.mapper")
+                .description("Mapper语句耗时")
+                .tag("mapper", id.substring(mapperDot + 1, methodDot))
+                .tag("statement", id.substring(methodDot + 1))
+                .tag("command", ms.getSqlCommandType().name())
+                .tag("outcome", outcome)
+                .tags(RequestMetricTags.current())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.utils.RequestMetricTags;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * 运行指标配置（Prometheus抓取端点：/api/actuator/prometheus）
+ * 分位数与直方图统一在application.yml的management.metrics.distribution中按指标名前缀开启
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Mapper语句耗时插件（MyBatis-Plus自动注册容器中的Interceptor；语句结束时通知慢语句分析器）
+     */
+    @Bean
+    public MapperMetricsInterceptor mapperMetricsInterceptor(MeterRegistry meterRegistry,
+                                                             SlowStatementProfiler slowStatementProfiler) {
+        return new MapperMetricsInterceptor(meterRegistry, slowStatementProfiler);
+    }
+
+    /**
+     * HTTP请求指标（http.server.requests）追加role标签：角色由JwtAuthorizationFilter写入请求属性，
+     * 请求结束时安全上下文已清理，因此不读取SecurityContextHolder
+     */
+    @Bean
+    public ServerRequestObservationConvention roleTaggedServerRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object role = context.getCarrier().getAttribute(RequestMetricTags.ROLE_ATTRIBUTE);
+                return super.getLowCardinalityKeyValues(context)
+                        .and(KeyValue.of("role", role != null ? role.toString() : RequestMetricTags.ANONYMOUS));
+            }
+        };
+    }
+}
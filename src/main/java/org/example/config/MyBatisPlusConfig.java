@@ -15,14 +15,16 @@ import org.springframework.context.annotation.Configuration;
 public class MyBatisPlusConfig {
 
     /**
-     * 注册分页插件（适配PostgreSQL）
+     * 注册分页插件（适配PostgreSQL）与慢语句分析器
      * 该Bean会被MyBatis-Plus自动识别，实现分页功能
      */
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(SlowStatementProfiler slowStatementProfiler) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
         // 添加分页插件，指定数据库类型为PostgreSQL（适配你的数据库）
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.POSTGRE_SQL));
+        // 慢语句分析器放在分页插件之后，记录的是分页改写后的实际SQL
+        interceptor.addInnerInterceptor(slowStatementProfiler);
         return interceptor;
     }
 }
\ No newline at end of file
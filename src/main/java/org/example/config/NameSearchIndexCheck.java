@@ -0,0 +1,43 @@
+package org.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 名称搜索模式检查：启动时确认 pg_trgm 三元组索引是否就绪（V5__name_trigram_indexes.sql）
+ * 索引缺失时名称筛选仍可用，但退化为扫描，此处给出告警便于运维补装扩展；
+ * 检查结果只用于告警，不切换SQL：少于3个字符的关键字（如一两个汉字的姓名片段）无论索引是否就绪都走扫描
+ */
+@Component
+public class NameSearchIndexCheck {
+    private static final Logger logger = LoggerFactory.getLogger(NameSearchIndexCheck.class);
+
+    private static final List<String> TRIGRAM_INDEXES = List.of("idx_sys_user_real_name_trgm", "idx_course_name_trgm");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        try {
+            Integer found = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_indexes WHERE schemaname = ANY (current_schemas(false)) AND indexname IN (?, ?)",
+                    Integer.class, TRIGRAM_INDEXES.get(0), TRIGRAM_INDEXES.get(1));
+            boolean trigramEnabled = found != null && found == TRIGRAM_INDEXES.size();
+            if (trigramEnabled) {
+                logger.info("名称搜索：pg_trgm 三元组索引已就绪（3个字符及以上的关键字走GIN索引）");
+            } else {
+                logger.warn("名称搜索：未找到 pg_trgm 三元组索引 {}，学生姓名/课程名筛选将退化为扫描", TRIGRAM_INDEXES);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("名称搜索索引检查失败：{}", e.getMessage());
+        }
+    }
+}
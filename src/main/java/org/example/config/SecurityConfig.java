@@ -2,8 +2,11 @@ package org.example.config;
 
 import org.example.security.JwtAuthenticationFilter;
 import org.example.security.JwtAuthorizationFilter;
+import org.example.security.ScrapeTokenAuthorizationManager;
+import org.example.security.TimedPasswordEncoder;
 import org.example.utils.JwtUtil;
 import org.example.mapper.SysUserMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,9 +31,13 @@ public class SecurityConfig {
     @Autowired
     private SysUserMapper sysUserMapper;
 
+    @Autowired
+    private ScrapeTokenAuthorizationManager scrapeTokenAuthorizationManager;
+
+    // BCrypt外包一层计时（登录校验/注册加密耗时进入sgms.password.*指标）
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
@@ -65,6 +72,9 @@ public class SecurityConfig {
                         .requestMatchers("/auth/register/**").permitAll()
                         // 放行预检请求（核心：解决OPTIONS请求401）
                         .requestMatchers(request -> "OPTIONS".equals(request.getMethod())).permitAll()
+                        // 放行健康检查；Prometheus抓取端点含各接口/角色耗时与密码校验结果计数，仅限静态抓取令牌（不接受用户Token）
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").access(scrapeTokenAuthorizationManager)
                         // 学生接口权限
                         .requestMatchers("/score/student/**").hasRole("STUDENT")
                         // 教师接口权限
@@ -73,6 +83,8 @@ public class SecurityConfig {
                         .requestMatchers("/teacher/**").hasRole("TEACHER")
                         .requestMatchers("/student/**").hasRole("STUDENT")
                         .requestMatchers("/students/**").hasRole("TEACHER")
+                        // 运维管理接口
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
                         // 其他请求需认证
                         .anyRequest().authenticated()
                 );
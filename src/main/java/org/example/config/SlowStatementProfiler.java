@@ -0,0 +1,461 @@
+package org.example.config;
+
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.example.utils.RequestMetricTags;
+import org.example.vo.SlowStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 慢语句分析器（MyBatis-Plus InnerInterceptor，注册在分页插件之后，看到的是分页改写后的实际SQL）
+ * beforeQuery/beforeUpdate记录语句、绑定参数与开始时间，语句结束由MapperMetricsInterceptor回调afterStatement；
+ * 按语句累计耗时直方图（微秒级2的幂分桶）与行数，超过阈值的语句连同绑定参数记入日志与最近慢语句列表，
+ * 并按抽样率在后台线程用独立连接捕获 EXPLAIN (ANALYZE, BUFFERS)（仅只读SELECT，执行后回滚）
+ * 开启后可关闭标准输出SQL日志，生产环境仍可定位慢语句
+ */
+@Component
+public class SlowStatementProfiler implements InnerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(SlowStatementProfiler.class);
+
+    // 耗时分桶：第i个桶为 [2^i, 2^(i+1)) 微秒，覆盖到约35分钟
+    private static final int LATENCY_BUCKETS = 32;
+    // 带写入的“查询”（数据修改CTE、FOR UPDATE）不能EXPLAIN ANALYZE，否则会再执行一次写入/加锁
+    private static final Pattern WRITE_SQL = Pattern.compile("\\b(INSERT|UPDATE|DELETE|MERGE)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // 敏感参数：属性名（取最后一段，如 et.password → password）或紧邻占位符前的列名命中时脱敏，值形如BCrypt哈希时同样脱敏
+    private static final Pattern SENSITIVE_NAME = Pattern.compile("(?i)password|passwd|pwd|secret|token|phone|real_?name|gender|id_?card");
+    private static final Pattern SENSITIVE_COLUMN = Pattern.compile(
+            "(?i)\\b(password|passwd|pwd|secret|token|phone|real_name|gender|id_card)\\s*(=|<>|!=|LIKE|ILIKE)\\s*$");
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[abxy]?\\$\\d{2}\\$.*");
+    private static final String REDACTED = "******";
+    // 日志/接口中单个参数的最大展示长度
+    private static final int MAX_PARAMETER_LENGTH = 64;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sgms.profiler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sgms.profiler.slow-threshold-ms:200}") // 慢语句阈值（毫秒）
+    private long slowThresholdMs;
+
+    @Value("${sgms.profiler.explain-sample-rate:0.1}") // 慢语句中捕获执行计划的比例（0关闭）
+    private double explainSampleRate;
+
+    @Value("${sgms.profiler.max-findings:100}") // 保留的最近慢语句条数
+    private int maxFindings;
+
+    // 当前线程进行中的语句（嵌套执行时按栈匹配）
+    private final ThreadLocal<Deque<Capture>> inFlight = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<String, StatementProfile> profiles = new ConcurrentHashMap<>();
+    private final Deque<SlowStatement> findings = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger findingCount = new AtomicInteger();
+    private final AtomicLong explainCount = new AtomicLong();
+    private final AtomicLong explainDropped = new AtomicLong();
+
+    // 执行计划捕获：单线程 + 有界队列，队列满时丢弃，避免拖慢业务或占满连接池
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), runnable -> {
+        Thread thread = new Thread(runnable, "sgms-explain");
+        thread.setDaemon(true);
+        return thread;
+    }, (runnable, executor) -> explainDropped.incrementAndGet());
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) {
+        if (enabled) {
+            inFlight.get().push(new Capture(ms, parameter, boundSql, resultHandler != Executor.NO_RESULT_HANDLER));
+        }
+    }
+
+    @Override
+    public void beforeUpdate(Executor executor, MappedStatement ms, Object parameter) {
+        if (enabled) {
+            inFlight.get().push(new Capture(ms, parameter, null, false));
+        }
+    }
+
+    /**
+     * 语句执行结束（由MapperMetricsInterceptor在Executor层回调；分页计数等未经过beforeQuery的语句不匹配，直接忽略）
+     * @param ms 语句
+     * @param result 查询结果列表或影响行数
+     */
+    public void afterStatement(MappedStatement ms, Object result) {
+        Deque<Capture> stack = inFlight.get();
+        Capture capture = stack.peek();
+        if (capture == null || capture.ms != ms) {
+            if (stack.isEmpty()) {
+                inFlight.remove();
+            }
+            return;
+        }
+        stack.pop();
+        if (stack.isEmpty()) {
+            inFlight.remove();
+        }
+        long elapsedNanos = System.nanoTime() - capture.startNanos;
+        long rows = capture.streaming ? -1 : rowsOf(result);
+
+        String statementId = shortId(ms.getId());
+        StatementProfile profile = profiles.computeIfAbsent(statementId, id -> new StatementProfile(id, ms, meterRegistry));
+        boolean slow = elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        profile.record(elapsedNanos, rows, slow);
+        if (slow) {
+            onSlow(capture, statementId, elapsedNanos, rows);
+        }
+    }
+
+    private void onSlow(Capture capture, String statementId, long elapsedNanos, long rows) {
+        MappedStatement ms = capture.ms;
+        BoundSql boundSql = capture.boundSql != null ? capture.boundSql : ms.getBoundSql(capture.parameter);
+        List<Object> values = parameterValues(ms.getConfiguration(), boundSql, capture.parameter);
+
+        SlowStatement finding = new SlowStatement();
+        finding.setStatementId(statementId);
+        finding.setCommandType(ms.getSqlCommandType().name());
+        finding.setElapsedMs(elapsedNanos / 1_000_000.0);
+        finding.setRows(rows);
+        finding.setSql(WHITESPACE.matcher(boundSql.getSql()).replaceAll(" ").trim());
+        List<String> parameters = displayParameters(boundSql, values);
+        finding.setParameters(parameters);
+        finding.setEndpoint(RequestMetricTags.currentEndpoint());
+        finding.setRole(RequestMetricTags.currentRole());
+        finding.setOccurredAt(LocalDateTime.now());
+
+        findings.addFirst(finding);
+        if (findingCount.incrementAndGet() > maxFindings) {
+            findings.pollLast();
+            findingCount.decrementAndGet();
+        }
+        logger.warn("慢语句：{} 耗时={}ms 行数={} 接口={} 角色={} SQL={} 参数={}", statementId,
+                String.format("%.1f", finding.getElapsedMs()), rows, finding.getEndpoint(), finding.getRole(),
+                finding.getSql(), parameters);
+
+        // 含敏感参数的语句不捕获执行计划（计划中的过滤条件会带出参数值）
+        if (explainSampleRate > 0 && isExplainable(ms, finding.getSql()) && !parameters.contains(REDACTED)
+                && ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+            explainExecutor.execute(() -> capturePlan(finding, values));
+        }
+    }
+
+    // 只读SELECT才可再执行一次：排除flushCache的写入型select（upsert/删除返回行）与含写入关键字的SQL
+    private static boolean isExplainable(MappedStatement ms, String sql) {
+        return ms.getSqlCommandType() == SqlCommandType.SELECT
+                && !ms.isFlushCacheRequired()
+                && !sql.regionMatches(true, 0, "EXPLAIN", 0, 7)
+                && !WRITE_SQL.matcher(sql).find();
+    }
+
+    private void capturePlan(SlowStatement finding, List<Object> values) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + finding.getSql())) {
+                ps.setQueryTimeout(30);
+                for (int i = 0; i < values.size(); i++) {
+                    ps.setObject(i + 1, values.get(i));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                finding.setPlan(plan.toString());
+                explainCount.incrementAndGet();
+                logger.warn("慢语句执行计划：{}\n{}", finding.getStatementId(), plan);
+            } finally {
+                connection.rollback();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            logger.warn("捕获执行计划失败：{} {}", finding.getStatementId(), e.getMessage());
+        }
+    }
+
+    // 按占位符顺序解析绑定参数（与DefaultParameterHandler取值规则一致）
+    private static List<Object> parameterValues(Configuration configuration, BoundSql boundSql, Object parameter) {
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        List<Object> values = new ArrayList<>(mappings.size());
+        MetaObject metaObject = null;
+        for (ParameterMapping mapping : mappings) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameter == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                value = parameter;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameter);
+                }
+                value = metaObject.getValue(property);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    // 参数展示值：敏感参数脱敏，过长的值截断（EXPLAIN仍使用原始参数）
+    static List<String> displayParameters(BoundSql boundSql, List<Object> values) {
+        List<String> properties = new ArrayList<>(values.size());
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            if (mapping.getMode() != ParameterMode.OUT) {
+                properties.add(mapping.getProperty());
+            }
+        }
+        List<String> columns = placeholderContexts(boundSql.getSql());
+        List<String> parameters = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            String property = properties.get(i);
+            String name = property.substring(property.lastIndexOf('.') + 1);
+            String text = String.valueOf(values.get(i));
+            boolean sensitive = SENSITIVE_NAME.matcher(name).find()
+                    || (i < columns.size() && SENSITIVE_COLUMN.matcher(columns.get(i)).find())
+                    || BCRYPT_HASH.matcher(text).matches();
+            if (sensitive) {
+                parameters.add(REDACTED);
+            } else if (text.length() > MAX_PARAMETER_LENGTH) {
+                parameters.add(text.substring(0, MAX_PARAMETER_LENGTH) + "...(" + text.length() + ")");
+            } else {
+                parameters.add(text);
+            }
+        }
+        return parameters;
+    }
+
+    // 每个占位符之前的SQL片段（最多40个字符，跳过字符串字面量中的问号），用于按列名判断敏感参数
+    private static List<String> placeholderContexts(String sql) {
+        List<String> contexts = new ArrayList<>();
+        boolean quoted = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '?' && !quoted) {
+                contexts.add(sql.substring(Math.max(0, i - 40), i));
+            }
+        }
+        return contexts;
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        return result != null ? 1 : 0;
+    }
+
+    // org.example.mapper.ScoreMapper.selectX → ScoreMapper.selectX
+    private static String shortId(String id) {
+        int methodDot = id.lastIndexOf('.');
+        int mapperDot = id.lastIndexOf('.', methodDot - 1);
+        return id.substring(mapperDot + 1);
+    }
+
+    /**
+     * 各语句累计指标（按总耗时降序）
+     * @param limit 最多返回的语句数
+     */
+    public List<Map<String, Object>> getStatementStats(int limit) {
+        List<StatementProfile> sorted = new ArrayList<>(profiles.values());
+        sorted.sort(Comparator.comparingLong((StatementProfile p) -> p.totalNanos.sum()).reversed());
+        List<Map<String, Object>> result = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (StatementProfile profile : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            result.add(profile.toMap());
+        }
+        return result;
+    }
+
+    /**
+     * 最近的慢语句（新的在前）
+     */
+    public List<SlowStatement> getSlowStatements() {
+        return new ArrayList<>(findings);
+    }
+
+    /**
+     * 分析器配置与运行指标
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("slowThresholdMs", slowThresholdMs);
+        stats.put("explainSampleRate", explainSampleRate);
+        stats.put("statementCount", profiles.size());
+        stats.put("slowFindingCount", findingCount.get());
+        stats.put("explainCount", explainCount.get());
+        stats.put("explainDropped", explainDropped.get());
+        return stats;
+    }
+
+    /**
+     * 清空累计指标与慢语句列表
+     */
+    public void reset() {
+        profiles.clear();
+        findings.clear();
+        findingCount.set(0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    // 进行中的语句
+    private static final class Capture {
+        final MappedStatement ms;
+        final Object parameter;
+        final BoundSql boundSql;
+        final boolean streaming;
+        final long startNanos = System.nanoTime();
+
+        Capture(MappedStatement ms, Object parameter, BoundSql boundSql, boolean streaming) {
+            this.ms = ms;
+            this.parameter = parameter;
+            this.boundSql = boundSql;
+            this.streaming = streaming;
+        }
+    }
+
+    // 单条语句的累计指标：耗时分桶直方图 + 行数
+    private static final class StatementProfile {
+        final String statementId;
+        final String commandType;
+        final LongAdder count = new LongAdder();
+        final LongAdder slowCount = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final LongAdder rowCount = new LongAdder();
+        final LongAdder totalRows = new LongAdder();
+        final AtomicLong maxRows = new AtomicLong();
+        final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS);
+        final DistributionSummary rowSummary;
+
+        StatementProfile(String statementId, MappedStatement ms, MeterRegistry meterRegistry) {
+            this.statementId = statementId;
+            this.commandType = ms.getSqlCommandType().name();
+            int dot = statementId.indexOf('.');
+            this.rowSummary = DistributionSummary.builder("sgms.mapper.rows")
+                    .description("Mapper语句返回/影响行数")
+                    .tag("mapper", statementId.substring(0, dot))
+                    .tag("statement", statementId.substring(dot + 1))
+                    .register(meterRegistry);
+        }
+
+        void record(long elapsedNanos, long rows, boolean slow) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            long micros = Math.max(1, elapsedNanos / 1000);
+            latencyBuckets.incrementAndGet(Math.min(LATENCY_BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros)));
+            if (slow) {
+                slowCount.increment();
+            }
+            if (rows >= 0) {
+                rowCount.increment();
+                totalRows.add(rows);
+                maxRows.accumulateAndGet(rows, Math::max);
+                rowSummary.record(rows);
+            }
+        }
+
+        // 分位数（取所在分桶上界，毫秒）
+        double percentileMs(double q) {
+            long total = 0;
+            long[] counts = new long[LATENCY_BUCKETS];
+            for (int i = 0; i < LATENCY_BUCKETS; i++) {
+                counts[i] = latencyBuckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(q * total);
+            long cumulative = 0;
+            for (int i = 0; i < LATENCY_BUCKETS; i++) {
+                cumulative += counts[i];
+                if (cumulative >= rank) {
+                    return (1L << (i + 1)) / 1000.0;
+                }
+            }
+            return (1L << LATENCY_BUCKETS) / 1000.0;
+        }
+
+        Map<String, Object> toMap() {
+            long n = count.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("statementId", statementId);
+            map.put("commandType", commandType);
+            map.put("count", n);
+            map.put("slowCount", slowCount.sum());
+            map.put("totalMs", totalNanos.sum() / 1_000_000.0);
+            map.put("avgMs", n == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / n);
+            map.put("p50Ms", percentileMs(0.50));
+            map.put("p95Ms", percentileMs(0.95));
+            map.put("p99Ms", percentileMs(0.99));
+            map.put("maxMs", maxNanos.get() / 1_000_000.0);
+            map.put("totalRows", totalRows.sum());
+            long counted = rowCount.sum();
+            map.put("avgRows", counted == 0 ? 0.0 : (double) totalRows.sum() / counted);
+            map.put("maxRows", maxRows.get());
+            return map;
+        }
+    }
+}
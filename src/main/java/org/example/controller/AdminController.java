@@ -0,0 +1,204 @@
+package org.example.controller;
+
+import org.example.cache.CourseOwnershipCache;
+import org.example.cache.CourseScoreCache;
+import org.example.cache.NameDictionary;
+import org.example.cache.StudentDirectoryIndex;
+import org.example.config.SlowStatementProfiler;
+import org.example.security.UserIdentityCache;
+import org.example.security.UserStatusCache;
+import org.example.service.CourseScoreStatsService;
+import org.example.vo.Result;
+import org.example.vo.SlowStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 运维管理接口（仅管理员）
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    private final CourseOwnershipCache courseOwnershipCache;
+    private final CourseScoreStatsService courseScoreStatsService;
+    private final CourseScoreCache courseScoreCache;
+    private final StudentDirectoryIndex studentDirectoryIndex;
+    private final NameDictionary nameDictionary;
+    private final SlowStatementProfiler slowStatementProfiler;
+    private final UserStatusCache userStatusCache;
+    private final UserIdentityCache userIdentityCache;
+
+    public AdminController(CourseOwnershipCache courseOwnershipCache, CourseScoreStatsService courseScoreStatsService,
+                           CourseScoreCache courseScoreCache, StudentDirectoryIndex studentDirectoryIndex,
+                           NameDictionary nameDictionary, SlowStatementProfiler slowStatementProfiler,
+                           UserStatusCache userStatusCache, UserIdentityCache userIdentityCache) {
+        this.courseOwnershipCache = courseOwnershipCache;
+        this.courseScoreStatsService = courseScoreStatsService;
+        this.courseScoreCache = courseScoreCache;
+        this.studentDirectoryIndex = studentDirectoryIndex;
+        this.nameDictionary = nameDictionary;
+        this.slowStatementProfiler = slowStatementProfiler;
+        this.userStatusCache = userStatusCache;
+        this.userIdentityCache = userIdentityCache;
+    }
+
+    /**
+     * 课程归属索引运行指标（命中/未命中、课程数、最近刷新时间）
+     */
+    @GetMapping("/cache/course-ownership")
+    public Result<Map<String, Object>> getCourseOwnershipStats() {
+        return Result.success(courseOwnershipCache.getStats());
+    }
+
+    /**
+     * 课程成绩读缓存运行指标（统计直方图、成绩列表：命中/未命中/淘汰）
+     */
+    @GetMapping("/cache/course-score")
+    public Result<Map<String, Object>> getCourseScoreCacheStats() {
+        return Result.success(courseScoreCache.getStats());
+    }
+
+    /**
+     * 名称字典运行指标（学生/课程条目数、命中率）
+     */
+    @GetMapping("/cache/name-dictionary")
+    public Result<Map<String, Object>> getNameDictionaryStats() {
+        return Result.success(nameDictionary.getStats());
+    }
+
+    /**
+     * 立即重建名称字典（直接修改学生姓名、课程名称或授课教师后调用）
+     */
+    @PostMapping("/cache/name-dictionary/refresh")
+    public Result<Map<String, Object>> refreshNameDictionary() {
+        try {
+            nameDictionary.refresh();
+            return Result.success(nameDictionary.getStats());
+        } catch (Exception e) {
+            logger.error("刷新名称字典失败", e);
+            return Result.error("刷新失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 立即重建学生名录前缀索引（直接修改student/sys_user表后调用）
+     */
+    @PostMapping("/cache/student-directory/refresh")
+    public Result<Map<String, Object>> refreshStudentDirectory() {
+        try {
+            studentDirectoryIndex.refresh();
+            return Result.success(studentDirectoryIndex.getStats());
+        } catch (Exception e) {
+            logger.error("刷新学生名录索引失败", e);
+            return Result.error("刷新失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 立即重建课程归属索引（直接修改course表后调用）
+     */
+    @PostMapping("/cache/course-ownership/refresh")
+    public Result<Map<String, Object>> refreshCourseOwnership() {
+        try {
+            courseOwnershipCache.refresh();
+            return Result.success(courseOwnershipCache.getStats());
+        } catch (Exception e) {
+            logger.error("刷新课程归属索引失败", e);
+            return Result.error("刷新失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 失效课程归属（直接修改course表新增课程、更换授课教师或删除课程后调用，不传courseId时全量刷新）
+     */
+    @PostMapping("/cache/course-ownership/evict")
+    public Result<Map<String, Object>> evictCourseOwnership(@RequestParam(required = false) Integer courseId) {
+        try {
+            if (courseId == null) {
+                courseOwnershipCache.refresh();
+            } else {
+                courseOwnershipCache.evict(courseId);
+            }
+            return Result.success(courseOwnershipCache.getStats());
+        } catch (Exception e) {
+            logger.error("失效课程归属索引失败，courseId：{}", courseId, e);
+            return Result.error("失效失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 失效用户状态快照与身份缓存（直接修改sys_user禁用/删除账号、调整角色或变更教师/学生档案后调用，不传username时清空全部）
+     */
+    @PostMapping("/cache/user-status/evict")
+    public Result<Integer> evictUserStatus(@RequestParam(required = false) String username) {
+        if (username == null || username.trim().isEmpty()) {
+            userStatusCache.evictAll();
+            userIdentityCache.evictAll();
+        } else {
+            userStatusCache.evict(username.trim());
+            userIdentityCache.evict(username.trim());
+        }
+        return Result.success(userStatusCache.size());
+    }
+
+    /**
+     * 重建课程成绩统计读模型（修复漂移；不传courseId时全量重建）
+     */
+    @PostMapping("/stats/course-score/rebuild")
+    public Result<String> rebuildCourseScoreStats(@RequestParam(required = false) Integer courseId) {
+        try {
+            if (courseId != null) {
+                courseScoreStatsService.rebuildCourse(courseId);
+                return Result.success("课程" + courseId + "统计已重建");
+            }
+            int rows = courseScoreStatsService.rebuildAll();
+            return Result.success("已重建" + rows + "门课程统计");
+        } catch (Exception e) {
+            logger.error("重建课程成绩统计失败", e);
+            return Result.error("重建失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 慢语句分析器配置与运行指标（阈值、抽样率、已捕获执行计划数）
+     */
+    @GetMapping("/profiler")
+    public Result<Map<String, Object>> getProfilerStats() {
+        return Result.success(slowStatementProfiler.getStats());
+    }
+
+    /**
+     * 各Mapper语句累计耗时分布与行数（按总耗时降序）
+     */
+    @GetMapping("/profiler/statements")
+    public Result<List<Map<String, Object>>> getStatementStats(@RequestParam(defaultValue = "50") Integer limit) {
+        return Result.success(slowStatementProfiler.getStatementStats(Math.max(1, Math.min(limit, 500))));
+    }
+
+    /**
+     * 最近的慢语句（含绑定参数与抽样捕获的执行计划）
+     */
+    @GetMapping("/profiler/slow")
+    public Result<List<SlowStatement>> getSlowStatements() {
+        return Result.success(slowStatementProfiler.getSlowStatements());
+    }
+
+    /**
+     * 清空语句累计指标与慢语句列表（调整索引或发布后重新观察）
+     */
+    @PostMapping("/profiler/reset")
+    public Result<Map<String, Object>> resetProfiler() {
+        slowStatementProfiler.reset();
+        return Result.success(slowStatementProfiler.getStats());
+    }
+}
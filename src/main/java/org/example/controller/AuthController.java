@@ -1,8 +1,12 @@
 package org.example.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import org.example.cache.NameDictionary;
+import org.example.cache.StudentDataVersion;
+import org.example.cache.StudentDirectoryIndex;
 import org.example.dto.LoginDTO;
 import org.example.dto.RegisterDTO;
+import org.example.dto.StudentDirectoryDTO;
 import org.example.entity.SysUser;
 import org.example.entity.Student;
 import org.example.entity.Teacher;
@@ -10,6 +14,7 @@ import org.example.mapper.StudentMapper;
 import org.example.mapper.SysUserMapper;
 import org.example.mapper.TeacherMapper;
 import org.example.utils.JwtUtil;
+import org.example.utils.UserUtils;
 import org.example.vo.Result;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -46,6 +51,15 @@ public class AuthController {
     @Autowired
     private TeacherMapper teacherMapper;
 
+    @Autowired
+    private StudentDataVersion studentDataVersion;
+
+    @Autowired
+    private StudentDirectoryIndex studentDirectoryIndex;
+
+    @Autowired
+    private NameDictionary nameDictionary;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -63,14 +77,10 @@ public class AuthController {
                 .eq(SysUser::getUsername, loginDTO.getUsername()));
 
         // 3. 角色标准化处理（去除ROLE_前缀，统一大写）
-        String rawRole = user.getRole();
-        String normalizedRole = rawRole == null ? "" : rawRole.toUpperCase();
-        if (normalizedRole.startsWith("ROLE_")) {
-            normalizedRole = normalizedRole.substring("ROLE_".length());
-        }
+        String normalizedRole = UserUtils.normalizeRole(user.getRole());
 
         // 4. 生成Token（使用标准化后的角色，避免重复拼接ROLE_）
-        String token = jwtUtil.generateToken(user.getUsername(), normalizedRole);
+        String token = jwtUtil.generateToken(user.getUsername(), normalizedRole, user.getId());
 
         // 5. 返回结果（含标准化角色：STUDENT/TEACHER，前端根据role跳转对应页面）
         Map<String, Object> result = new HashMap<>();
@@ -141,6 +151,16 @@ public class AuthController {
         student.setUserId(userId.intValue()); // 若Student的userId是Integer，转int；否则直接用userId
         student.setStudentNo(studentNo);
         studentMapper.insert(student);
+        studentDataVersion.bump();
+
+        // 3. 学生名录索引增量插入（提交后生效）
+        StudentDirectoryDTO entry = new StudentDirectoryDTO();
+        entry.setId(student.getId());
+        entry.setStudentNo(studentNo);
+        entry.setStudentName(sysUser.getRealName());
+        entry.setClassName(student.getClassName());
+        studentDirectoryIndex.add(entry);
+        nameDictionary.evictStudent(student.getId());
 
         return Result.success("注册成功");
     }
@@ -2,19 +2,29 @@ package org.example.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.example.cache.CourseOwnershipCache;
+import org.example.cache.ETagSupport;
 import org.example.dto.ScoreDTO;
+import org.example.dto.ScoreImportDTO;
 import org.example.entity.Score;
-import org.example.entity.Student;
-import org.example.entity.SysUser;
-import org.example.mapper.StudentMapper;
-import org.example.mapper.SysUserMapper;
+import org.example.security.CurrentUser;
+import org.example.service.ScoreImportService;
+import org.example.service.RankingService;
 import org.example.service.ScoreService;
-import org.example.utils.UserUtils;
+import org.example.service.TranscriptService;
+import org.example.utils.ScoreCursor;
 import org.example.vo.Result;
+import org.example.vo.ScoreImportResult;
+import org.example.vo.StudentRank;
+import org.example.vo.Transcript;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -29,63 +39,63 @@ import java.util.Map;
 public class ScoreController {
 
     private static final Logger logger = LoggerFactory.getLogger(ScoreController.class);
+    // 游标分页单页上限
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
     private final ScoreService scoreService;
-    private final SysUserMapper sysUserMapper;
-    private final StudentMapper studentMapper;
+    private final ScoreImportService scoreImportService;
+    private final TranscriptService transcriptService;
+    private final RankingService rankingService;
+    private final CourseOwnershipCache courseOwnershipCache;
+    private final ETagSupport eTagSupport;
 
     // 构造器注入（符合Spring规范，消除字段注入警告）
     public ScoreController(ScoreService scoreService,
-                           SysUserMapper sysUserMapper,
-                           StudentMapper studentMapper) {
+                           ScoreImportService scoreImportService,
+                           TranscriptService transcriptService,
+                           RankingService rankingService,
+                           CourseOwnershipCache courseOwnershipCache,
+                           ETagSupport eTagSupport) {
         this.scoreService = scoreService;
-        this.sysUserMapper = sysUserMapper;
-        this.studentMapper = studentMapper;
+        this.scoreImportService = scoreImportService;
+        this.transcriptService = transcriptService;
+        this.rankingService = rankingService;
+        this.courseOwnershipCache = courseOwnershipCache;
+        this.eTagSupport = eTagSupport;
     }
 
     /**
      * 学生成绩查询（核心修复：Result调用+类型转换）
+     * 传入cursor参数（首页传空字符串）时切换为游标分页：返回nextCursor/hasMore，withTotal=true时附带总数
      */
     @GetMapping("/student")
     public Result<Map<String, Object>> getStudentScores(
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
-            @RequestParam(required = false) String courseName
+            @RequestParam(required = false) String courseName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            CurrentUser currentUser
     ) {
         try {
-            String username = UserUtils.getCurrentUsername();
-            if (username == null || username.trim().isEmpty()) {
-                logger.warn("未获取到登录用户名");
+            // 身份由CurrentUser解析器注入（用户ID取自Token，学生ID取自身份缓存）
+            if (currentUser == null) {
+                logger.warn("未获取到登录用户");
                 return Result.success(buildEmptyPageResult()); // 匹配Result.success(T data)
             }
 
-            SysUser sysUser = sysUserMapper.selectByUsername(username);
-            if (sysUser == null) {
-                logger.warn("用户名{}不存在", username);
-                return Result.success(buildEmptyPageResult());
-            }
-
-            // 修复：SysUser.id(Long) → Integer（匹配StudentMapper.selectByUserId(Integer)）
-            Integer userIdInt = sysUser.getId() != null ? sysUser.getId().intValue() : null;
-            if (userIdInt == null) {
-                logger.error("用户ID为空，无法查询学生信息");
+            Integer studentId = currentUser.getStudentId();
+            if (studentId == null) {
+                logger.warn("用户{}未关联学生信息", currentUser.getUsername());
                 return Result.success(buildEmptyPageResult());
             }
 
-            // 修复：selectByUserId参数类型匹配（消除Long→Integer错误）
-            Student student = studentMapper.selectByUserId(userIdInt);
-            if (student == null) {
-                // 修复：selectByStudentNo单参数调用（消除实参个数错误）
-                student = studentMapper.selectByStudentNo(username);
-                if (student == null) {
-                    logger.warn("用户{}未关联学生信息", username);
-                    return Result.success(buildEmptyPageResult());
-                }
-            }
-
-            Integer studentId = student.getId();
-            if (studentId == null) {
-                logger.error("学生ID为空");
-                return Result.success(buildEmptyPageResult());
+            // 游标分页模式：按 (course_id, id) 续读，多取一条判断是否还有下一页
+            if (cursor != null) {
+                int limit = clampCursorPageSize(pageSize);
+                List<ScoreDTO> rows = scoreService.getScoreListByStudentIdAfter(
+                        studentId, courseName, ScoreCursor.decode(cursor), limit + 1);
+                Long total = withTotal ? scoreService.countScoreListByStudentId(studentId, courseName) : null;
+                return Result.success(buildCursorPageResult(rows, limit, total));
             }
 
             // 修复：Page泛型推断（消除警告）
@@ -104,35 +114,95 @@ public class ScoreController {
         }
     }
 
+    /**
+     * 学生成绩单：学分加权绩点、学期绩点、已获学分与课程明细
+     */
+    @GetMapping("/student/transcript")
+    public Result<Transcript> getStudentTranscript(CurrentUser currentUser) {
+        try {
+            if (currentUser == null) {
+                return Result.error("未获取到登录用户");
+            }
+
+            Integer studentId = currentUser.getStudentId();
+            if (studentId == null) {
+                logger.warn("用户{}未关联学生信息", currentUser.getUsername());
+                return Result.error("学生信息不存在");
+            }
+
+            Transcript transcript = transcriptService.getTranscript(studentId);
+            if (transcript == null) {
+                return Result.error("学生信息不存在");
+            }
+            return Result.success(transcript);
+        } catch (Exception e) {
+            logger.error("学生成绩单查询异常", e);
+            return Result.error("查询失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 学生本人在课程内、班级内的名次与百分位名次
+     */
+    @GetMapping("/student/rank")
+    public Result<StudentRank> getStudentRank(@RequestParam Integer courseId, CurrentUser currentUser) {
+        try {
+            if (currentUser == null) {
+                return Result.error("未获取到登录用户");
+            }
+
+            Integer studentId = currentUser.getStudentId();
+            if (studentId == null) {
+                logger.warn("用户{}未关联学生信息", currentUser.getUsername());
+                return Result.error("学生信息不存在");
+            }
+
+            StudentRank rank = rankingService.getStudentRank(courseId, studentId);
+            if (rank == null) {
+                return Result.error("该课程暂无您的成绩");
+            }
+            return Result.success(rank);
+        } catch (Exception e) {
+            logger.error("学生排名查询异常", e);
+            return Result.error("查询失败：" + e.getMessage());
+        }
+    }
+
     /**
      * 教师成绩查询（修复Result调用+参数匹配）
+     * 传入cursor参数（首页传空字符串）时切换为游标分页：返回nextCursor/hasMore，withTotal=true时附带总数
      */
     @GetMapping("/teacher")
     public Result<Map<String, Object>> getTeacherScores(
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) String studentName,
-            @RequestParam(required = false) Integer courseId
+            @RequestParam(required = false) Integer courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            CurrentUser currentUser
     ) {
         try {
-            String username = UserUtils.getCurrentUsername();
-            if (username == null || username.trim().isEmpty()) {
-                logger.warn("未获取到登录用户名");
-                return Result.success(buildEmptyPageResult());
-            }
-
-            SysUser currentUser = sysUserMapper.selectByUsername(username);
             if (currentUser == null) {
-                logger.warn("用户名{}不存在", username);
+                logger.warn("未获取到登录用户");
                 return Result.success(buildEmptyPageResult());
             }
 
-            Long teacherId = scoreService.getTeacherIdByUserId(currentUser.getId());
+            Long teacherId = currentUser.getTeacherId();
             if (teacherId == null) {
-                logger.warn("用户{}未关联教师信息", username);
+                logger.warn("用户{}未关联教师信息", currentUser.getUsername());
                 return Result.success(buildEmptyPageResult());
             }
 
+            // 游标分页模式：按 (course_id, id) 续读，多取一条判断是否还有下一页
+            if (cursor != null) {
+                int limit = clampCursorPageSize(pageSize);
+                List<ScoreDTO> rows = scoreService.getScoreListByTeacherAfter(
+                        teacherId, studentName, courseId, ScoreCursor.decode(cursor), limit + 1);
+                Long total = withTotal ? scoreService.countScoreListByTeacher(teacherId, studentName, courseId) : null;
+                return Result.success(buildCursorPageResult(rows, limit, total));
+            }
+
             Page<ScoreDTO> page = new Page<>(pageNum, pageSize);
             IPage<ScoreDTO> scorePage = scoreService.getScoreListByTeacher(page, teacherId, studentName, courseId);
 
@@ -149,29 +219,29 @@ public class ScoreController {
     }
 
     /**
-     * 教师课程列表（修复Result调用+参数匹配）
+     * 教师课程列表（修复Result调用+参数匹配；ETag取自课程归属快照版本，按教师区分）
      */
     @GetMapping("/teacher/courses")
-    public Result<List<Map<String, Object>>> getTeacherCourses() {
+    public Result<List<Map<String, Object>>> getTeacherCourses(CurrentUser currentUser, WebRequest webRequest) {
         try {
-            String username = UserUtils.getCurrentUsername();
-            if (username == null || username.trim().isEmpty()) {
+            if (currentUser == null) {
                 // 修复：Result.error单参数调用
                 return Result.error("未获取到登录用户");
             }
 
-            SysUser currentUser = sysUserMapper.selectByUsername(username);
-            if (currentUser == null) {
-                return Result.error("当前用户不存在");
-            }
-
-            Long teacherId = scoreService.getTeacherIdByUserId(currentUser.getId());
+            Long teacherId = currentUser.getTeacherId();
             if (teacherId == null) {
                 return Result.error("教师信息不存在");
             }
 
+            String etag = eTagSupport.tag("teacherCourses", teacherId, courseOwnershipCache.version());
+            if (eTagSupport.isNotModified(webRequest, etag)) {
+                return null;
+            }
+
             // 修复：getTeacherCourses单参数调用（消除实参个数错误）
             List<Map<String, Object>> courses = scoreService.getTeacherCourses(teacherId);
+            eTagSupport.apply(webRequest, etag);
             return Result.success(courses); // 匹配Result.success(T data)
 
         } catch (Exception e) {
@@ -182,9 +252,14 @@ public class ScoreController {
 
     /**
      * 保存成绩（修复Result调用+权限校验参数）
+     * overwrite=true 时新增请求遇到已有成绩直接覆盖（upsert）
      */
     @PostMapping("/teacher/save")
-    public Result<String> saveScore(@RequestBody Score score) {
+    public Result<String> saveScore(
+            @RequestBody Score score,
+            @RequestParam(defaultValue = "false") boolean overwrite,
+            CurrentUser currentUser
+    ) {
         try {
             // 基础参数校验
             if (score.getStudentId() == null || score.getCourseId() == null) {
@@ -200,12 +275,10 @@ public class ScoreController {
             }
 
             // 获取当前登录教师信息
-            String username = UserUtils.getCurrentUsername();
-            SysUser currentUser = sysUserMapper.selectByUsername(username);
             if (currentUser == null) {
                 return Result.unauth(); // 匹配Result.unauth()（无参）
             }
-            Long teacherId = scoreService.getTeacherIdByUserId(currentUser.getId());
+            Long teacherId = currentUser.getTeacherId();
             if (teacherId == null) {
                 return Result.forbidden(); // 匹配Result.forbidden()（无参）
             }
@@ -215,15 +288,14 @@ public class ScoreController {
                 return Result.forbidden();
             }
 
-            // 修复：existsScore参数个数匹配（消除无实参错误）
-            boolean exists = scoreService.existsScore(score.getStudentId(), score.getCourseId(), score.getId());
-            if (exists) {
-                return Result.error("该学生已存在该课程成绩");
-            }
-
-            boolean success = scoreService.saveOrUpdateScore(score);
+            // 判重由唯一约束保证：overwrite=true 时按学生+课程覆盖已有成绩，否则重复时报错
+            boolean success = overwrite && score.getId() == null
+                    ? scoreService.upsertScore(score)
+                    : scoreService.saveOrUpdateScore(score);
             return success ? Result.success("保存成功") : Result.error("保存失败");
 
+        } catch (DuplicateKeyException e) {
+            return Result.error("该学生已存在该课程成绩");
         } catch (RuntimeException e) {
             logger.error("保存成绩异常", e);
             if ("未登录".equals(e.getMessage()) || "Token已过期".equals(e.getMessage())) {
@@ -239,23 +311,62 @@ public class ScoreController {
         }
     }
 
+    /**
+     * 批量导入成绩（Excel/CSV，表头：学号、课程ID、分数、考试日期）
+     * 课程ID列为空时使用courseId参数；合法行在同一事务内批量写入，非法行逐行返回原因
+     */
+    @PostMapping("/teacher/import")
+    public Result<ScoreImportResult> importScores(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Integer courseId,
+            CurrentUser currentUser
+    ) {
+        try {
+            if (file == null || file.isEmpty()) {
+                return Result.error("请选择要导入的文件");
+            }
+            if (currentUser == null) {
+                return Result.unauth();
+            }
+            Long teacherId = currentUser.getTeacherId();
+            if (teacherId == null) {
+                return Result.forbidden();
+            }
+
+            List<ScoreImportDTO> rows;
+            try (InputStream in = file.getInputStream()) {
+                rows = scoreImportService.readRows(in, file.getOriginalFilename());
+            }
+            if (rows.isEmpty()) {
+                return Result.error("文件中没有数据行");
+            }
+
+            ScoreImportResult importResult = scoreImportService.importScores(teacherId, courseId, rows);
+            return Result.success(importResult);
+
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        } catch (Exception e) {
+            logger.error("批量导入成绩异常", e);
+            return Result.error("导入失败：" + e.getMessage());
+        }
+    }
+
     /**
      * 单条删除成绩（修复Result调用+权限校验参数）
      */
     @DeleteMapping("/teacher/{id}")
-    public Result<String> deleteScore(@PathVariable Integer id) {
+    public Result<String> deleteScore(@PathVariable Integer id, CurrentUser currentUser) {
         try {
             if (id == null || id <= 0) {
                 return Result.error("无效ID");
             }
 
             // 获取当前登录教师信息
-            String username = UserUtils.getCurrentUsername();
-            SysUser currentUser = sysUserMapper.selectByUsername(username);
             if (currentUser == null) {
                 return Result.unauth();
             }
-            Long teacherId = scoreService.getTeacherIdByUserId(currentUser.getId());
+            Long teacherId = currentUser.getTeacherId();
             if (teacherId == null) {
                 return Result.forbidden();
             }
@@ -278,26 +389,25 @@ public class ScoreController {
      * 批量删除成绩（修复Result调用+权限校验参数）
      */
     @DeleteMapping("/teacher/batch")
-    public Result<String> batchDeleteScore(@RequestBody List<Integer> ids) {
+    public Result<String> batchDeleteScore(@RequestBody List<Integer> ids, CurrentUser currentUser) {
         try {
             if (ids == null || ids.isEmpty()) {
                 return Result.error("请选择要删除的成绩");
             }
 
             // 获取当前登录教师信息
-            String username = UserUtils.getCurrentUsername();
-            SysUser currentUser = sysUserMapper.selectByUsername(username);
             if (currentUser == null) {
                 return Result.unauth();
             }
-            Long teacherId = scoreService.getTeacherIdByUserId(currentUser.getId());
+            Long teacherId = currentUser.getTeacherId();
             if (teacherId == null) {
                 return Result.forbidden();
             }
 
-            // 修复：checkBatchScorePermission参数个数匹配
-            if (!scoreService.checkBatchScorePermission(teacherId, ids)) {
-                return Result.forbidden();
+            // 集合化权限校验：一次查询得出无权操作的ID并逐一返回
+            List<Integer> deniedIds = scoreService.findUnauthorizedScoreIds(teacherId, ids);
+            if (!deniedIds.isEmpty()) {
+                return Result.forbidden("无权删除以下成绩（不存在或不属于您的课程）：" + deniedIds);
             }
 
             boolean success = scoreService.batchRemoveScores(ids);
@@ -333,6 +443,32 @@ public class ScoreController {
         }
     }
 
+    // 游标分页结果：list/nextCursor/hasMore，total仅在请求时返回
+    private Map<String, Object> buildCursorPageResult(List<ScoreDTO> rows, int limit, Long total) {
+        boolean hasMore = rows.size() > limit;
+        List<ScoreDTO> list = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ScoreDTO last = list.get(list.size() - 1);
+            nextCursor = ScoreCursor.encode(last.getCourseId(), last.getId());
+        }
+        Map<String, Object> result = new HashMap<>(4);
+        result.put("list", list);
+        result.put("nextCursor", nextCursor);
+        result.put("hasMore", hasMore);
+        if (total != null) {
+            result.put("total", total);
+        }
+        return result;
+    }
+
+    private int clampCursorPageSize(Integer pageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            return 10;
+        }
+        return Math.min(pageSize, MAX_CURSOR_PAGE_SIZE);
+    }
+
     // 空分页结果（统一返回格式，匹配Result.success(T data)）
     private Map<String, Object> buildEmptyPageResult() {
         Map<String, Object> result = new HashMap<>(2);
@@ -1,17 +1,32 @@
 package org.example.controller;
 
-import org.example.entity.SysUser;
+import org.example.cache.ETagSupport;
+import org.example.cache.ScoreDataVersion;
+import org.example.dto.ScoreRankDTO;
+import org.example.security.CurrentUser;
+import org.example.service.RankingService;
 import org.example.service.ScoreService;
-import org.example.mapper.SysUserMapper;
-import org.example.utils.UserUtils;
+import org.example.service.TranscriptService;
+import org.example.utils.ScoreBuckets;
+import org.example.vo.Result;
 import org.example.vo.ScoreSegmentStats;
 import org.example.vo.ScoreSegmentStatsResponse;
+import org.example.vo.StudentGpa;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 统计相关接口
@@ -21,32 +36,46 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatController {
 
     private static final Logger logger = LoggerFactory.getLogger(StatController.class);
+    // 批量统计单次最多课程数
+    private static final int MAX_BATCH_COURSES = 200;
     private final ScoreService scoreService;
-    private final SysUserMapper sysUserMapper;
+    private final TranscriptService transcriptService;
+    private final RankingService rankingService;
+    private final ScoreDataVersion scoreDataVersion;
+    private final ETagSupport eTagSupport;
 
-    public StatController(ScoreService scoreService, SysUserMapper sysUserMapper) {
+    public StatController(ScoreService scoreService, TranscriptService transcriptService, RankingService rankingService,
+                          ScoreDataVersion scoreDataVersion, ETagSupport eTagSupport) {
         this.scoreService = scoreService;
-        this.sysUserMapper = sysUserMapper;
+        this.transcriptService = transcriptService;
+        this.rankingService = rankingService;
+        this.scoreDataVersion = scoreDataVersion;
+        this.eTagSupport = eTagSupport;
     }
 
+    /**
+     * 课程成绩分段统计
+     * 分段可通过 bucketWidth（如10表示每10分一段）或 edges（如60,80）指定，均不传时为 0-60/60-80/80-100
+     * ETag取自课程数据版本与分段参数，权限校验（内存）通过后、查询统计前处理If-None-Match
+     */
     @GetMapping("/score/segment")
-    public ScoreSegmentStatsResponse getScoreSegmentStats(@RequestParam Integer courseId) {
+    public ScoreSegmentStatsResponse getScoreSegmentStats(
+            @RequestParam Integer courseId,
+            @RequestParam(required = false) BigDecimal bucketWidth,
+            @RequestParam(required = false) List<BigDecimal> edges,
+            CurrentUser currentUser,
+            WebRequest webRequest
+    ) {
         try {
             if (courseId == null) {
                 return ScoreSegmentStatsResponse.error("课程ID不能为空");
             }
 
-            String username = UserUtils.getCurrentUsername();
-            if (username == null || username.trim().isEmpty()) {
-                return ScoreSegmentStatsResponse.error("未获取到登录用户");
-            }
-
-            SysUser currentUser = sysUserMapper.selectByUsername(username);
             if (currentUser == null) {
-                return ScoreSegmentStatsResponse.error("当前用户不存在");
+                return ScoreSegmentStatsResponse.error("未获取到登录用户");
             }
 
-            Long teacherId = scoreService.getTeacherIdByUserId(currentUser.getId());
+            Long teacherId = currentUser.getTeacherId();
             if (teacherId == null) {
                 return ScoreSegmentStatsResponse.error("教师信息不存在");
             }
@@ -55,11 +84,166 @@ public class StatController {
                 return ScoreSegmentStatsResponse.forbidden();
             }
 
-            ScoreSegmentStats stats = scoreService.getScoreSegmentStats(courseId);
+            ScoreBuckets buckets = ScoreBuckets.of(bucketWidth, edges);
+            String etag = eTagSupport.tag("segment", courseId, scoreDataVersion.courseVersion(courseId), bucketWidth, edges);
+            if (eTagSupport.isNotModified(webRequest, etag)) {
+                return null;
+            }
+            ScoreSegmentStats stats = scoreService.getScoreSegmentStats(courseId, buckets);
+            eTagSupport.apply(webRequest, etag);
             return ScoreSegmentStatsResponse.success(stats);
+        } catch (IllegalArgumentException e) {
+            return ScoreSegmentStatsResponse.error(e.getMessage());
         } catch (Exception e) {
             logger.error("获取成绩分段统计失败", e);
             return ScoreSegmentStatsResponse.error("获取失败：" + e.getMessage());
         }
     }
+
+    /**
+     * 批量课程成绩分段统计（教师看板一次请求获取多门课程）
+     * courseIds不传时统计当前教师全部课程；权限由内存课程归属索引校验，统计行一次读取
+     */
+    @GetMapping("/score/segment/batch")
+    public Result<Map<Integer, ScoreSegmentStats>> getScoreSegmentStatsBatch(
+            @RequestParam(required = false) List<Integer> courseIds,
+            @RequestParam(required = false) BigDecimal bucketWidth,
+            @RequestParam(required = false) List<BigDecimal> edges,
+            CurrentUser currentUser
+    ) {
+        try {
+            if (currentUser == null) {
+                return Result.unauth();
+            }
+            Long teacherId = currentUser.getTeacherId();
+            if (teacherId == null) {
+                return Result.forbidden();
+            }
+
+            List<Integer> targetCourseIds;
+            if (courseIds == null || courseIds.isEmpty()) {
+                targetCourseIds = scoreService.getTeacherCourseIds(teacherId);
+            } else {
+                targetCourseIds = new ArrayList<>(new LinkedHashSet<>(courseIds));
+                if (targetCourseIds.size() > MAX_BATCH_COURSES) {
+                    return Result.error("单次最多查询" + MAX_BATCH_COURSES + "门课程");
+                }
+                List<Integer> deniedIds = scoreService.findUnauthorizedCourseIds(teacherId, targetCourseIds);
+                if (!deniedIds.isEmpty()) {
+                    return Result.forbidden("无权查看以下课程：" + deniedIds);
+                }
+            }
+
+            ScoreBuckets buckets = ScoreBuckets.of(bucketWidth, edges);
+            return Result.success(scoreService.getScoreSegmentStatsBatch(targetCourseIds, buckets));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        } catch (Exception e) {
+            logger.error("批量获取成绩分段统计失败", e);
+            return Result.error("获取失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 群体成绩统计（多门课程合并，可按考试日期筛选）
+     * courseIds不传时统计当前教师全部课程；分段参数同 /score/segment
+     */
+    @GetMapping("/score/cohort")
+    public ScoreSegmentStatsResponse getCohortStats(
+            @RequestParam(required = false) List<Integer> courseIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate examFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate examTo,
+            @RequestParam(required = false) BigDecimal bucketWidth,
+            @RequestParam(required = false) List<BigDecimal> edges,
+            CurrentUser currentUser
+    ) {
+        try {
+            if (currentUser == null) {
+                return ScoreSegmentStatsResponse.error("未获取到登录用户");
+            }
+
+            Long teacherId = currentUser.getTeacherId();
+            if (teacherId == null) {
+                return ScoreSegmentStatsResponse.error("教师信息不存在");
+            }
+
+            List<Integer> targetCourseIds = courseIds;
+            if (targetCourseIds == null || targetCourseIds.isEmpty()) {
+                targetCourseIds = scoreService.getTeacherCourseIds(teacherId);
+            } else {
+                for (Integer courseId : targetCourseIds) {
+                    if (!scoreService.checkTeacherCoursePermission(teacherId, courseId)) {
+                        return ScoreSegmentStatsResponse.forbidden();
+                    }
+                }
+            }
+
+            ScoreBuckets buckets = ScoreBuckets.of(bucketWidth, edges);
+            ScoreSegmentStats stats = scoreService.getCohortStats(targetCourseIds, examFrom, examTo, buckets);
+            return ScoreSegmentStatsResponse.success(stats);
+        } catch (IllegalArgumentException e) {
+            return ScoreSegmentStatsResponse.error(e.getMessage());
+        } catch (Exception e) {
+            logger.error("获取群体成绩统计失败", e);
+            return ScoreSegmentStatsResponse.error("获取失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 班级学分加权绩点（整个班级一次集合化计算，按绩点降序；仅限为该班授课的教师）
+     */
+    @GetMapping("/gpa/class")
+    public Result<List<StudentGpa>> getClassGpa(@RequestParam String className, CurrentUser currentUser) {
+        try {
+            if (className == null || className.trim().isEmpty()) {
+                return Result.error("班级不能为空");
+            }
+
+            if (currentUser == null) {
+                return Result.error("未获取到登录用户");
+            }
+
+            Long teacherId = currentUser.getTeacherId();
+            if (teacherId == null) {
+                return Result.error("教师信息不存在");
+            }
+
+            if (!transcriptService.checkTeacherClassPermission(teacherId, className.trim())) {
+                return Result.forbidden();
+            }
+            return Result.success(transcriptService.getClassGpa(className.trim()));
+        } catch (Exception e) {
+            logger.error("班级绩点计算失败", e);
+            return Result.error("计算失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 课程成绩排名（课程内、班级内名次与百分位名次；传className时只返回该班学生）
+     */
+    @GetMapping("/rank/course")
+    public Result<List<ScoreRankDTO>> getCourseRanking(
+            @RequestParam Integer courseId,
+            @RequestParam(required = false) String className,
+            CurrentUser currentUser
+    ) {
+        try {
+            if (currentUser == null) {
+                return Result.error("未获取到登录用户");
+            }
+
+            Long teacherId = currentUser.getTeacherId();
+            if (teacherId == null) {
+                return Result.error("教师信息不存在");
+            }
+
+            if (!scoreService.checkTeacherCoursePermission(teacherId, courseId)) {
+                return Result.forbidden();
+            }
+            return Result.success(rankingService.getCourseRanking(courseId, className));
+        } catch (Exception e) {
+            logger.error("获取课程排名失败", e);
+            return Result.error("获取失败：" + e.getMessage());
+        }
+    }
 }
@@ -1,18 +1,32 @@
 package org.example.controller;
 
+import com.alibaba.fastjson.JSON;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.cache.ETagSupport;
+import org.example.cache.NameDictionary;
+import org.example.cache.ScoreDataVersion;
+import org.example.cache.StudentDataVersion;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.example.dto.ScoreDTO;
+import org.example.dto.StudentDirectoryDTO;
 import org.example.dto.StudentOptionDTO;
 import org.example.dto.TeacherInfoDTO;
 import org.example.entity.Student;
-import org.example.entity.SysUser;
-import org.example.mapper.SysUserMapper;
+import org.example.security.CurrentUser;
 import org.example.service.ScoreService;
 import org.example.service.StudentService;
 import org.example.service.TeacherService;
-import org.example.utils.UserUtils;
 import org.example.vo.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -24,35 +38,92 @@ import java.util.HashMap;
 @RequestMapping("/teacher")
 public class TeacherController {
 
+    private static final Logger logger = LoggerFactory.getLogger(TeacherController.class);
+    // 学生名录单页上限、联想搜索返回条数上限
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     // ========== 构造器注入（符合Spring规范，消除字段注入警告） ==========
     private final TeacherService teacherService;
     private final ScoreService scoreService;
     private final StudentService studentService;
-    private final SysUserMapper sysUserMapper;
+    private final ScoreDataVersion scoreDataVersion;
+    private final StudentDataVersion studentDataVersion;
+    private final ETagSupport eTagSupport;
+    private final NameDictionary nameDictionary;
 
     public TeacherController(TeacherService teacherService,
                              ScoreService scoreService,
                              StudentService studentService,
-                             SysUserMapper sysUserMapper) {
+                             ScoreDataVersion scoreDataVersion,
+                             StudentDataVersion studentDataVersion,
+                             ETagSupport eTagSupport,
+                             NameDictionary nameDictionary) {
         this.teacherService = teacherService;
         this.scoreService = scoreService;
         this.studentService = studentService;
-        this.sysUserMapper = sysUserMapper;
+        this.scoreDataVersion = scoreDataVersion;
+        this.studentDataVersion = studentDataVersion;
+        this.eTagSupport = eTagSupport;
+        this.nameDictionary = nameDictionary;
     }
 
     /**
-     * 查询课程成绩列表
+     * 查询课程成绩列表（ETag取自课程数据版本与名称字典版本/失效次数，成绩与姓名、课程名均未变化时返回304）
      */
     @GetMapping("/score/list/{courseId}")
-    public Result<List<ScoreDTO>> getScoreList(@PathVariable Integer courseId) {
+    public Result<List<ScoreDTO>> getScoreList(@PathVariable Integer courseId, WebRequest webRequest) {
         try {
+            String etag = eTagSupport.tag("scoreList", courseId, scoreDataVersion.courseVersion(courseId),
+                    nameDictionary.version(), nameDictionary.evictCount());
+            if (eTagSupport.isNotModified(webRequest, etag)) {
+                return null;
+            }
             List<ScoreDTO> scoreList = scoreService.getScoreListByCourseId(courseId);
+            eTagSupport.apply(webRequest, etag);
             return Result.success(scoreList);
         } catch (Exception e) {
             return Result.error("查询成绩列表失败：" + e.getMessage());
         }
     }
 
+    /**
+     * 流式导出课程成绩Excel（逐行从数据库游标写入响应流，不在内存中加载整门课程）
+     */
+    @GetMapping("/score/export/{courseId}")
+    public void exportCourseScores(@PathVariable Integer courseId, CurrentUser currentUser,
+                                   HttpServletResponse response) throws IOException {
+        if (courseId == null || courseId <= 0) {
+            writeJson(response, Result.error("课程ID无效"));
+            return;
+        }
+        if (currentUser == null || currentUser.getTeacherId() == null) {
+            writeJson(response, Result.forbidden());
+            return;
+        }
+        if (!scoreService.checkTeacherCoursePermission(currentUser.getTeacherId(), courseId)) {
+            writeJson(response, Result.forbidden());
+            return;
+        }
+        prepareExcelResponse(response, "课程成绩_" + courseId + ".xlsx");
+        long rows = scoreService.exportScoresByCourseId(courseId, response.getOutputStream());
+        logger.info("课程{}成绩导出完成，共{}行", courseId, rows);
+    }
+
+    /**
+     * 流式导出当前教师全部课程成绩Excel
+     */
+    @GetMapping("/score/export")
+    public void exportTeacherScores(CurrentUser currentUser, HttpServletResponse response) throws IOException {
+        if (currentUser == null || currentUser.getTeacherId() == null) {
+            writeJson(response, Result.forbidden());
+            return;
+        }
+        prepareExcelResponse(response, "全部课程成绩.xlsx");
+        long rows = scoreService.exportScoresByTeacher(currentUser.getTeacherId(), response.getOutputStream());
+        logger.info("教师{}成绩导出完成，共{}行", currentUser.getTeacherId(), rows);
+    }
+
     /**
      * 获取所有学生列表
      */
@@ -66,6 +137,48 @@ public class TeacherController {
         }
     }
 
+    /**
+     * 学生名录分页（服务端分页，keyword为学号或姓名前缀，className为班级）
+     */
+    @GetMapping("/students/page")
+    public Result<Map<String, Object>> getStudentDirectoryPage(
+            @RequestParam(defaultValue = "1") Integer pageNum,
+            @RequestParam(defaultValue = "20") Integer pageSize,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String className
+    ) {
+        try {
+            int size = Math.max(1, Math.min(pageSize == null ? 20 : pageSize, MAX_DIRECTORY_PAGE_SIZE));
+            Page<StudentDirectoryDTO> page = new Page<>(pageNum == null ? 1 : Math.max(1, pageNum), size);
+            IPage<StudentDirectoryDTO> directoryPage = studentService.getStudentDirectoryPage(page, keyword, className);
+
+            Map<String, Object> result = new HashMap<>(2);
+            result.put("total", directoryPage.getTotal());
+            result.put("list", directoryPage.getRecords());
+            return Result.success(result);
+        } catch (Exception e) {
+            logger.error("学生名录分页查询失败", e);
+            return Result.error("查询学生名录失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 学生联想搜索（学号/姓名前缀，内存索引返回前limit条，不访问数据库）
+     */
+    @GetMapping("/students/search")
+    public Result<List<StudentDirectoryDTO>> searchStudents(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "10") Integer limit
+    ) {
+        try {
+            int size = Math.max(1, Math.min(limit == null ? 10 : limit, MAX_SEARCH_LIMIT));
+            return Result.success(studentService.searchStudents(keyword, size));
+        } catch (Exception e) {
+            logger.error("学生联想搜索失败", e);
+            return Result.error("搜索失败：" + e.getMessage());
+        }
+    }
+
     /**
      * 根据课程ID查询学生列表（优化：兼容courseId为空，返回全部学生选项）
      * 适配：courseId为Integer（匹配StudentService + 数据库integer类型）
@@ -101,11 +214,15 @@ public class TeacherController {
     }
 
     /**
-     * 查询全部学生下拉选项（独立接口，复用性更高）
+     * 查询全部学生下拉选项（独立接口，复用性更高；ETag取自学生名录版本）
      */
     @GetMapping("/students/options")
-    public Result<List<Map<String, Object>>> getAllStudentOptions() {
+    public Result<List<Map<String, Object>>> getAllStudentOptions(WebRequest webRequest) {
         try {
+            String etag = eTagSupport.tag("studentOptions", studentDataVersion.version());
+            if (eTagSupport.isNotModified(webRequest, etag)) {
+                return null;
+            }
             List<StudentOptionDTO> students = studentService.getAllStudentOptions();
             List<Map<String, Object>> result = new java.util.ArrayList<>();
             if (students != null && !students.isEmpty()) {
@@ -120,6 +237,7 @@ public class TeacherController {
                     result.add(item);
                 }
             }
+            eTagSupport.apply(webRequest, etag);
             return Result.success(result);
         } catch (Exception e) {
             return Result.error("查询学生列表失败：" + e.getMessage());
@@ -145,4 +263,20 @@ public class TeacherController {
             return Result.error("校验成绩唯一性失败：" + e.getMessage());
         }
     }
+
+    // 设置Excel下载响应头（文件名UTF-8编码，兼容中文）
+    private void prepareExcelResponse(HttpServletResponse response, String fileName) {
+        String encoded = URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20");
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setCharacterEncoding("utf-8");
+        response.setHeader("Content-Disposition", "attachment;filename*=utf-8''" + encoded);
+    }
+
+    // 导出开始前的错误以统一JSON格式返回
+    private void writeJson(HttpServletResponse response, Result<?> result) throws IOException {
+        response.setContentType("application/json;charset=utf-8");
+        PrintWriter out = response.getWriter();
+        out.write(JSON.toJSONString(result));
+        out.flush();
+    }
 }
\ No newline at end of file
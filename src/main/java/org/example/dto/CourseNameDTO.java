@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.Data;
+
+/**
+ * 课程名称字典条目（课程名称 + 授课教师姓名）
+ */
+@Data
+public class CourseNameDTO {
+    private Integer id;             // 课程ID
+    private String courseName;      // 课程名称
+    private String teacherName;     // 授课教师姓名（sys_user.real_name）
+}
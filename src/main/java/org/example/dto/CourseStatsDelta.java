@@ -0,0 +1,48 @@
+package org.example.dto;
+
+import lombok.Data;
+import org.example.utils.ScoreHistogram;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 课程成绩统计增量（一次写操作对某门课程统计行的影响）
+ * 记录总数变化与直方图逐桶变化（键为PostgreSQL数组下标，即十分位分数+1）
+ */
+@Data
+public class CourseStatsDelta {
+    private Integer courseId;
+    private long total;
+    private Map<Integer, Integer> histDeltas = new TreeMap<>();
+    private boolean recompute;       // 旧值未知，需按课程重算
+
+    public CourseStatsDelta(Integer courseId) {
+        this.courseId = courseId;
+    }
+
+    /**
+     * 记录一条新增成绩
+     */
+    public void add(BigDecimal score) {
+        total++;
+        bin(score, 1);
+    }
+
+    /**
+     * 记录一条删除成绩
+     */
+    public void remove(BigDecimal score) {
+        total--;
+        bin(score, -1);
+    }
+
+    private void bin(BigDecimal score, int sign) {
+        if (score == null) {
+            return;
+        }
+        // 新增与删除落在同一桶时相互抵消，不产生更新
+        histDeltas.merge(ScoreHistogram.toBin(score) + 1, sign, (a, b) -> a + b == 0 ? null : a + b);
+    }
+}
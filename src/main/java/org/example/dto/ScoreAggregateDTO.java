@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.Data;
+
+/**
+ * 课程成绩统计行（course_score_stats）：记录总数与逐0.1分计数的直方图
+ */
+@Data
+public class ScoreAggregateDTO {
+    private Integer courseId;       // 课程ID
+    private Long total;             // 成绩记录数（含分数为空的记录）
+    private Integer[] scoreHist;    // 逐0.1分计数（长度1001，见ScoreHistogram）
+}
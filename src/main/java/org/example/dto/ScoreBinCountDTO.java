@@ -0,0 +1,12 @@
+package org.example.dto;
+
+import lombok.Data;
+
+/**
+ * 成绩直方图桶计数DTO（bin为分数×10，分数为空时bin为null）
+ */
+@Data
+public class ScoreBinCountDTO {
+    private Integer bin;
+    private Long count;
+}
@@ -0,0 +1,37 @@
+package org.example.dto;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.annotation.format.DateTimeFormat;
+import com.alibaba.excel.annotation.write.style.ColumnWidth;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 成绩导出行（EasyExcel写出模型，列顺序即Excel列顺序）
+ */
+@Data
+@ColumnWidth(16)
+public class ScoreExportDTO {
+
+    @ExcelProperty("学号")
+    private String studentNo;
+
+    @ExcelProperty("学生姓名")
+    private String studentName;
+
+    @ExcelProperty("课程名称")
+    @ColumnWidth(24)
+    private String courseName;
+
+    @ExcelProperty("分数")
+    private BigDecimal score;
+
+    @ExcelProperty("考试日期")
+    @DateTimeFormat("yyyy-MM-dd")
+    private LocalDate examTime;
+
+    @ExcelProperty("授课教师")
+    private String teacherName;
+}
@@ -0,0 +1,28 @@
+package org.example.dto;
+
+import com.alibaba.excel.annotation.ExcelIgnore;
+import com.alibaba.excel.annotation.ExcelProperty;
+import lombok.Data;
+
+/**
+ * 成绩导入行（EasyExcel读取模型，按表头名称匹配列）
+ * 各列均按字符串读取，由服务层逐行校验并生成错误报告
+ */
+@Data
+public class ScoreImportDTO {
+
+    @ExcelProperty("学号")
+    private String studentNo;
+
+    @ExcelProperty("课程ID")
+    private String courseId; // 可为空：为空时使用导入接口的courseId参数
+
+    @ExcelProperty("分数")
+    private String score;
+
+    @ExcelProperty("考试日期")
+    private String examTime; // 支持 yyyy-MM-dd / yyyy/M/d / yyyyMMdd
+
+    @ExcelIgnore
+    private Integer rowNum; // Excel行号（从1开始，含表头）
+}
@@ -0,0 +1,21 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 课程成绩排名行（RANK/PERCENT_RANK窗口函数计算，分数降序，并列同名次）
+ */
+@Data
+public class ScoreRankDTO {
+    private Integer studentId;              // 学生ID
+    private String studentNo;               // 学号
+    private String studentName;             // 学生姓名
+    private String className;               // 班级
+    private BigDecimal score;               // 分数
+    private Integer courseRank;             // 课程内名次
+    private BigDecimal coursePercentRank;   // 课程内百分位名次（0为第一名，1为最后一名）
+    private Integer classRank;              // 班级内名次
+    private BigDecimal classPercentRank;    // 班级内百分位名次
+}
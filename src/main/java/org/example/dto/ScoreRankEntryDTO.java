@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.Data;
+
+/**
+ * 排名表构建行（仅学生ID、班级与十分位整数分数）
+ */
+@Data
+public class ScoreRankEntryDTO {
+    private Integer studentId;
+    private String className;
+    private Integer scoreTenths;    // 分数×10
+}
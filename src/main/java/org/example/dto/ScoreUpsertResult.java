@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 多值upsert的逐行结果
+ */
+@Data
+public class ScoreUpsertResult {
+    private Integer id;
+    private Integer studentId;
+    private Integer courseId;
+    private Boolean inserted;      // true：新增；false：覆盖已有成绩
+    private Boolean oldFound;      // 写入前加锁读取时是否存在旧行（为false且inserted=false说明旧行在加锁后由并发事务插入，旧分数未知）
+    private BigDecimal oldScore;   // 覆盖前的分数（由服务层根据加锁读取结果回填）
+}
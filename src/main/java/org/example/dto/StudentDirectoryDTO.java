@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import lombok.Data;
+
+/**
+ * 学生名录条目（分页名录与联想搜索共用）
+ */
+@Data
+public class StudentDirectoryDTO {
+    private Integer id;             // 学生ID
+    private String studentNo;       // 学号
+    private String studentName;     // 学生姓名（sys_user.real_name）
+    private String className;       // 班级
+}
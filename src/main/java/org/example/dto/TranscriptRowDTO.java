@@ -0,0 +1,22 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 成绩单明细行（学生 LEFT JOIN 成绩、课程，无成绩的学生返回一行且课程字段为空）
+ */
+@Data
+public class TranscriptRowDTO {
+    private Integer studentId;      // 学生ID
+    private String studentNo;       // 学号
+    private String studentName;     // 学生姓名（sys_user.real_name）
+    private String className;       // 班级
+    private Integer courseId;       // 课程ID（无成绩时为空）
+    private String courseName;      // 课程名称
+    private BigDecimal credit;      // 课程学分
+    private BigDecimal score;       // 分数
+    private LocalDate examTime;     // 考试日期
+}
@@ -1,8 +1,11 @@
 package org.example.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.example.dto.CourseNameDTO;
 import org.example.entity.Course;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,4 +30,20 @@ public interface CourseMapper extends BaseMapper<Course> {
      */
     @Select("SELECT * FROM course WHERE teacher_id = #{teacherId}") // 假设course表有teacher_id字段
     List<Course> selectByTeacherId(Long teacherId);
-}
\ No newline at end of file
+
+    /**
+     * 课程名称字典（课程名称 + 授课教师姓名）
+     * @param ids 课程ID（为空时返回全部课程）
+     * @return 字典条目
+     */
+    @Select("<script>" +
+            "SELECT c.id, c.course_name, tu.real_name AS teacher_name " +
+            "FROM course c " +
+            "LEFT JOIN teacher t ON c.teacher_id = t.id " +
+            "LEFT JOIN sys_user tu ON t.user_id = tu.id " +
+            "<if test='ids != null'>" +
+            "WHERE c.id IN <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</if>" +
+            "</script>")
+    List<CourseNameDTO> selectCourseNames(@Param("ids") Collection<Integer> ids);
+}
@@ -0,0 +1,76 @@
+package org.example.mapper;
+
+import org.apache.ibatis.annotations.Param;
+import org.example.dto.CourseStatsDelta;
+import org.example.dto.ScoreAggregateDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 课程成绩统计读模型Mapper（course_score_stats）
+ */
+public interface CourseScoreStatsMapper {
+
+    /**
+     * 批量读取课程统计行
+     * @param courseIds 课程ID（不可为空）
+     * @return 已物化的统计行
+     */
+    List<ScoreAggregateDTO> selectByCourseIds(@Param("courseIds") Collection<Integer> courseIds);
+
+    /**
+     * 按增量更新统计行
+     * @param delta 课程统计增量
+     * @return 影响行数（0表示统计行尚未物化）
+     */
+    int applyDelta(CourseStatsDelta delta);
+
+    /**
+     * 从score表只读聚合课程统计（不写入统计表）
+     * @param courseIds 课程ID（不可为空）
+     * @return 统计结果（无成绩的课程不包含）
+     */
+    List<ScoreAggregateDTO> selectFromScore(@Param("courseIds") Collection<Integer> courseIds);
+
+    /**
+     * 查询尚未物化统计行的课程
+     * @return 课程ID（升序）
+     */
+    List<Integer> selectUnmaterializedCourseIds();
+
+    /**
+     * 物化课程统计行（从score表一次GROUP BY聚合，已存在时不覆盖）
+     * @param courseIds 课程ID
+     * @return 插入行数
+     */
+    int materialize(@Param("courseIds") Collection<Integer> courseIds);
+
+    /**
+     * 从score表重算课程统计并覆盖
+     * @param courseIds 课程ID
+     * @return 影响行数
+     */
+    int rebuildByCourseIds(@Param("courseIds") Collection<Integer> courseIds);
+
+    /**
+     * 锁定score表写入（SHARE模式，与成绩写入互斥），保证重建期间统计与成绩一致
+     */
+    void lockScoreTable();
+
+    /**
+     * 删除课程统计行（重建前清理，课程已无成绩时不再保留）
+     */
+    int deleteByCourseIds(@Param("courseIds") Collection<Integer> courseIds);
+
+    /**
+     * 清空统计表
+     */
+    int deleteAll();
+
+    /**
+     * 从score表全量重建所有有成绩的课程（无成绩的课程不产生统计行）
+     * @return 重建行数
+     */
+    int rebuildAll();
+}
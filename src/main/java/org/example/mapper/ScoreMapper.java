@@ -3,10 +3,18 @@ package org.example.mapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.example.dto.ScoreBinCountDTO;
 import org.example.dto.ScoreDTO;
-import org.example.dto.ScoreSegmentCountDTO; // 新增：导入成绩分段统计DTO
+import org.example.dto.ScoreExportDTO;
+import org.example.dto.ScoreRankDTO;
+import org.example.dto.ScoreRankEntryDTO;
+import org.example.dto.ScoreUpsertResult;
+import org.example.dto.TranscriptRowDTO;
 import org.example.entity.Score;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -50,11 +58,210 @@ public interface ScoreMapper extends BaseMapper<Score> {
             @Param("courseId") Integer courseId
     );
 
-    // ========== 新增成绩分段统计方法 ==========
+    // ========== 窄查询：只返回score表列（id/student_id/course_id/score/exam_time），名称由NameDictionary补齐 ==========
+    List<ScoreDTO> selectScoreRowsByCourseId(@Param("courseId") Integer courseId);
+
+    List<ScoreDTO> selectScoreRowsByStudentId(@Param("studentId") Integer studentId);
+
+    IPage<ScoreDTO> selectScoreRowsByStudentIdPage(
+            Page<ScoreDTO> page,
+            @Param("studentId") Integer studentId,
+            @Param("courseName") String courseName
+    );
+
+    IPage<ScoreDTO> selectScoreRowsByTeacherPage(
+            Page<ScoreDTO> page,
+            @Param("teacherId") Long teacherId,
+            @Param("studentName") String studentName,
+            @Param("courseId") Integer courseId
+    );
+
+    List<ScoreDTO> selectScoreRowsByStudentIdAfter(
+            @Param("studentId") Integer studentId,
+            @Param("courseName") String courseName,
+            @Param("afterCourseId") Integer afterCourseId,
+            @Param("afterId") Integer afterId,
+            @Param("limit") int limit
+    );
+
+    List<ScoreDTO> selectScoreRowsByTeacherAfter(
+            @Param("teacherId") Long teacherId,
+            @Param("studentName") String studentName,
+            @Param("courseId") Integer courseId,
+            @Param("afterCourseId") Integer afterCourseId,
+            @Param("afterId") Integer afterId,
+            @Param("limit") int limit
+    );
+
+    // ========== 游标（Keyset）分页方法：按 (course_id, id) 顺序读取 ==========
+    /**
+     * 学生成绩游标分页查询
+     * @param afterCourseId 上一页最后一条的课程ID（首页为空）
+     * @param afterId 上一页最后一条的成绩ID（首页为空）
+     * @param limit 读取条数
+     */
+    List<ScoreDTO> selectScoreListByStudentIdAfter(
+            @Param("studentId") Integer studentId,
+            @Param("courseName") String courseName,
+            @Param("afterCourseId") Integer afterCourseId,
+            @Param("afterId") Integer afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * 教师成绩游标分页查询
+     * @param afterCourseId 上一页最后一条的课程ID（首页为空）
+     * @param afterId 上一页最后一条的成绩ID（首页为空）
+     * @param limit 读取条数
+     */
+    List<ScoreDTO> selectScoreListByTeacherAfter(
+            @Param("teacherId") Long teacherId,
+            @Param("studentName") String studentName,
+            @Param("courseId") Integer courseId,
+            @Param("afterCourseId") Integer afterCourseId,
+            @Param("afterId") Integer afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * 学生成绩总数（与分页查询条件一致）
+     */
+    long countScoreListByStudentIdAndCourseName(
+            @Param("studentId") Integer studentId,
+            @Param("courseName") String courseName
+    );
+
+    /**
+     * 教师成绩总数（与分页查询条件一致）
+     */
+    long countScoreListByTeacher(
+            @Param("teacherId") Long teacherId,
+            @Param("studentName") String studentName,
+            @Param("courseId") Integer courseId
+    );
+
+    // ========== 流式导出方法（结果逐行回调，不在内存中聚合整个列表） ==========
+    /**
+     * 流式读取课程成绩导出行
+     * @param courseId 课程ID
+     * @param handler 逐行回调
+     */
+    void selectScoreExportByCourseId(@Param("courseId") Integer courseId, ResultHandler<ScoreExportDTO> handler);
+
+    /**
+     * 流式读取教师全部课程的成绩导出行
+     * @param teacherId 教师ID
+     * @param handler 逐行回调
+     */
+    void selectScoreExportByTeacher(@Param("teacherId") Long teacherId, ResultHandler<ScoreExportDTO> handler);
+
+    /**
+     * 学生成绩查询的执行计划（JSON，用于读取规划器估算行数）
+     */
+    String explainCountScoreListByStudentIdAndCourseName(
+            @Param("studentId") Integer studentId,
+            @Param("courseName") String courseName
+    );
+
+    /**
+     * 教师成绩查询的执行计划（JSON，用于读取规划器估算行数）
+     */
+    String explainCountScoreListByTeacher(
+            @Param("teacherId") Long teacherId,
+            @Param("studentName") String studentName,
+            @Param("courseId") Integer courseId
+    );
+
+    /**
+     * 按十分位整数分组计数（分数为空的记录bin为null），逐桶回调直接累加到直方图
+     * @param courseIds 课程ID（不可为空）
+     * @param examFrom 考试日期起（含，可为空）
+     * @param examTo 考试日期止（含，可为空）
+     * @param handler 逐桶回调（至多1002次）
+     */
+    void selectScoreTenths(@Param("courseIds") Collection<Integer> courseIds,
+                           @Param("examFrom") LocalDate examFrom,
+                           @Param("examTo") LocalDate examTo,
+                           ResultHandler<ScoreBinCountDTO> handler);
+
+    // ========== 原生写入方法（依赖唯一约束 score(student_id, course_id)） ==========
+    /**
+     * 新增成绩，已存在同一学生+课程成绩时不写入
+     * @param score 成绩（写入成功后回填id）
+     * @return 影响行数（0表示重复）
+     */
+    int insertScoreIfAbsent(Score score);
+
+    /**
+     * 锁定并读取已有成绩（SELECT ... FOR UPDATE，须与upsertScores在同一事务内且先于其执行）
+     * @param scores 待写入的成绩列表（按学生+课程匹配）
+     * @return 已存在的成绩（student_id/course_id/score）
+     */
+    List<Score> selectScoresForUpdate(@Param("scores") List<Score> scores);
+
+    /**
+     * 新增或覆盖成绩（多值 INSERT ... ON CONFLICT DO UPDATE，单条时传入单元素列表；同一批次内学生+课程不可重复）
+     * @param scores 成绩列表
+     * @return 每行的写入结果（id、是否新增；覆盖前分数由调用方根据selectScoresForUpdate回填）
+     */
+    List<ScoreUpsertResult> upsertScores(@Param("scores") List<Score> scores);
+
+    /**
+     * 按ID更新成绩，返回更新前的行（id/student_id/course_id/score）
+     * @param score 成绩（id必填，其余字段为空时保持原值）
+     * @return 更新前的成绩；记录不存在时返回null
+     */
+    Score updateScoreReturningOld(Score score);
+
+    /**
+     * 集合化成绩权限校验：返回教师无权操作的成绩ID
+     * @param teacherId 教师ID
+     * @param ids 待校验的成绩ID（不可为空）
+     * @return 无权操作的ID（成绩/课程不存在或课程不属于该教师），全部有权时为空列表
+     */
+    List<Integer> selectUnauthorizedScoreIds(@Param("teacherId") Long teacherId, @Param("ids") Collection<Integer> ids);
+
+    /**
+     * 按ID删除成绩，返回被删除的行（id/student_id/course_id/score）
+     * @param ids 成绩ID列表
+     * @return 实际被删除的成绩
+     */
+    List<Score> deleteScoresReturning(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 学生成绩单明细（含课程学分；学生无成绩时返回一行且课程字段为空，学生不存在时返回空列表）
+     * @param studentId 学生ID
+     * @return 明细行（按考试日期升序）
+     */
+    List<TranscriptRowDTO> selectTranscriptRows(@Param("studentId") Integer studentId);
+
+    /**
+     * 流式读取整个班级的成绩单明细，同一学生的行连续输出（需在只读事务内调用）
+     * @param className 班级
+     * @param handler 逐行回调
+     */
+    void selectClassTranscriptRows(@Param("className") String className, ResultHandler<TranscriptRowDTO> handler);
+
+    /**
+     * 教师是否为该班授课（班内至少一名学生选修或有成绩的课程由该教师授课）
+     * @param teacherId 教师ID
+     * @param className 班级
+     * @return 是否授课
+     */
+    boolean existsClassTaughtBy(@Param("teacherId") Long teacherId, @Param("className") String className);
+
+    /**
+     * 课程排名（RANK/PERCENT_RANK，分数降序，空分数不参与）
+     * @param courseId 课程ID
+     * @param className 班级（可为空）
+     * @return 排名行（按课程内名次升序）
+     */
+    List<ScoreRankDTO> selectCourseRanking(@Param("courseId") Integer courseId, @Param("className") String className);
+
     /**
-     * 查询课程成绩各分数段人数
+     * 排名表构建行（学生ID升序）
      * @param courseId 课程ID
-     * @return 各分数段计数DTO
+     * @return 学生ID、班级、分数×10
      */
-    ScoreSegmentCountDTO selectScoreSegmentCounts(@Param("courseId") Integer courseId);
-}
\ No newline at end of file
+    List<ScoreRankEntryDTO> selectCourseRankEntries(@Param("courseId") Integer courseId);
+}
@@ -1,10 +1,15 @@
 package org.example.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.example.dto.StudentDirectoryDTO;
 import org.example.dto.StudentOptionDTO;
 import org.example.entity.Student;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -56,4 +61,45 @@ public interface StudentMapper extends BaseMapper<Student> {
             "FROM student s " +
             "JOIN sys_user u ON s.user_id = u.id")
     List<StudentOptionDTO> selectAllOptions();
-}
\ No newline at end of file
+
+    /**
+     * 学生名录全量条目（供前缀索引加载，仅四列）
+     * @return 学生ID/学号/姓名/班级
+     */
+    @Select("SELECT s.id, s.student_no, u.real_name AS student_name, s.class_name " +
+            "FROM student s " +
+            "LEFT JOIN sys_user u ON s.user_id = u.id")
+    List<StudentDirectoryDTO> selectDirectoryEntries();
+
+    /**
+     * 学生名录分页（按学号排序；keyword为学号或姓名前缀，className精确匹配，均可为空）
+     * @param page 分页参数
+     * @return 当前页学生
+     */
+    @Select("<script>" +
+            "SELECT s.id, s.student_no, u.real_name AS student_name, s.class_name " +
+            "FROM student s " +
+            "LEFT JOIN sys_user u ON s.user_id = u.id " +
+            "<where>" +
+            "<if test='className != null and className != \"\"'> s.class_name = #{className} </if>" +
+            "<if test='keyword != null and keyword != \"\"'> AND (s.student_no LIKE #{keyword} || '%' OR u.real_name LIKE #{keyword} || '%') </if>" +
+            "</where>" +
+            "ORDER BY s.student_no, s.id" +
+            "</script>")
+    IPage<StudentDirectoryDTO> selectDirectoryPage(Page<StudentDirectoryDTO> page,
+                                                   @Param("keyword") String keyword,
+                                                   @Param("className") String className);
+
+    /**
+     * 按ID批量查询学生名录条目（名称字典未覆盖的学生）
+     * @param ids 学生ID（不可为空）
+     * @return 学生ID/学号/姓名/班级
+     */
+    @Select("<script>" +
+            "SELECT s.id, s.student_no, u.real_name AS student_name, s.class_name " +
+            "FROM student s " +
+            "LEFT JOIN sys_user u ON s.user_id = u.id " +
+            "WHERE s.id IN <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<StudentDirectoryDTO> selectDirectoryEntriesByIds(@Param("ids") Collection<Integer> ids);
+}
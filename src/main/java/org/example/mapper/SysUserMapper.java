@@ -7,4 +7,7 @@ import org.example.entity.SysUser;
 public interface SysUserMapper extends BaseMapper<SysUser> {
     // 新增：根据 username 查询用户（用于获取 userId）
     SysUser selectByUsername(@Param("username") String username);
+
+    // 新增：仅查询用户状态（id + role + status，供认证过滤器的状态快照使用）
+    SysUser selectStatusByUsername(@Param("username") String username);
 }
\ No newline at end of file
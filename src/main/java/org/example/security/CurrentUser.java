@@ -0,0 +1,24 @@
+package org.example.security;
+
+import lombok.Value;
+
+/**
+ * 当前登录用户身份（由CurrentUserArgumentResolver注入控制器方法参数）
+ * 用户ID来自Token声明，教师ID/学生ID来自一次缓存的身份查询
+ */
+@Value
+public class CurrentUser {
+    Long userId;        // sys_user.id
+    String username;    // 用户名
+    String role;        // 角色（带ROLE_前缀，如ROLE_TEACHER）
+    Long teacherId;     // teacher.id（非教师或未关联时为空）
+    Integer studentId;  // student.id（非学生或未关联时为空）
+
+    public boolean isTeacher() {
+        return "ROLE_TEACHER".equals(role);
+    }
+
+    public boolean isStudent() {
+        return "ROLE_STUDENT".equals(role);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 控制器方法参数解析器：为 CurrentUser 类型参数注入当前登录用户身份
+ * 未登录时注入null，由控制器按原有逻辑返回对应提示
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    // 请求级缓存，同一请求内多次解析只计算一次
+    private static final String REQUEST_ATTRIBUTE = CurrentUser.class.getName();
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CurrentUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object resolved = webRequest.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (resolved instanceof CurrentUser) {
+            return resolved;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+
+        Object principal = authentication.getPrincipal();
+        CurrentUser currentUser;
+        if (principal instanceof LoginUser loginUser) {
+            // 声明认证：用户ID与角色直接取自Token
+            currentUser = userIdentityCache.resolve(loginUser.getUserId(), loginUser.getUsername(), loginUser.getRole());
+        } else {
+            // 数据库认证（旧Token）：角色取自权限列表，用户ID由身份缓存查询
+            String role = authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .findFirst()
+                    .orElse(null);
+            currentUser = userIdentityCache.resolve(null, authentication.getName(), role);
+        }
+
+        if (currentUser != null) {
+            webRequest.setAttribute(REQUEST_ATTRIBUTE, currentUser, RequestAttributes.SCOPE_REQUEST);
+        }
+        return currentUser;
+    }
+}
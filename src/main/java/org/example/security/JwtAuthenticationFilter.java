@@ -74,7 +74,7 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
 
         String role = user != null ? user.getRole() : "USER"; // 默认角色为USER
         logger.debug("用户角色: {}", role);
-        String token = jwtUtil.generateToken(username, role);
+        String token = jwtUtil.generateToken(username, role, user != null ? user.getId() : null);
         logger.debug("生成Token: {}", token);
 
         // 跨域相关：暴露Authorization头，让前端能获取到
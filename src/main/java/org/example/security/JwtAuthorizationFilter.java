@@ -3,6 +3,9 @@ package org.example.security;
 import org.example.utils.JwtUtil;
 import org.example.vo.Result;
 import com.alibaba.fastjson.JSON;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.utils.RequestMetricTags;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,6 +35,16 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 声明认证模式：Token中携带用户ID时直接由声明构建认证信息，不再逐请求查询sys_user
+    @Value("${jwt.claims-auth:true}")
+    private boolean claimsAuth;
+
     @Value("${jwt.token-header:Authorization}")
     private String tokenHeader;
 
@@ -42,10 +55,15 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
         String requestURI = request.getRequestURI();
         logger.info("处理请求：URI={}, Method={}", requestURI, request.getMethod());
+        // 指标标签：先按匿名记录接口分组，认证成功后更新角色
+        RequestMetricTags.bind(request, null);
 
-        // 🌟 核心优化：放行登录、注册接口和OPTIONS预检请求（兼容注册功能）
+        // 🌟 核心优化：放行登录、注册接口、OPTIONS预检请求与健康检查（兼容注册功能）；
+        // 指标抓取端点携带的是静态抓取令牌而非JWT，交由ScrapeTokenAuthorizationManager校验
         if (requestURI.endsWith("/auth/login")
                 || requestURI.contains("/auth/register")
+                || request.getServletPath().equals("/actuator/health")
+                || request.getServletPath().equals("/actuator/prometheus")
                 || "OPTIONS".equals(request.getMethod())) {
             logger.debug("放行登录/注册/OPTIONS接口");
             chain.doFilter(request, response);
@@ -58,6 +76,7 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
         // 非登录/注册接口，强制校验Token
         if (authHeader == null || !authHeader.startsWith(tokenPrefix)) {
             logger.warn("请求头中无有效Token，URI={}", requestURI);
+            recordAuth(Timer.start(meterRegistry), request, "missing_token", null);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json;charset=utf-8");
             PrintWriter out = response.getWriter();
@@ -68,39 +87,53 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Token解析 + 账号状态校验耗时（按结果、接口分组、角色打标签）
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             String token = authHeader.substring(tokenPrefix.length()).trim();
             logger.debug("提取的Token: {}", token);
 
-            String username = jwtUtil.extractUsername(token);
+            // 单次解析：签名与过期时间在verifyToken中一并校验，失败时抛出异常进入catch分支
+            JwtClaims claims = jwtUtil.verifyToken(token);
+            String username = claims.getUsername();
             logger.debug("从Token中提取的用户名: {}", username);
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 logger.debug("开始验证用户: {}", username);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                // 核心：使用JwtUtil的validateToken方法验证Token有效性
-                if (jwtUtil.validateToken(token, username)) {
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                    logger.info("用户{}认证成功，权限已设置: {}", username, userDetails.getAuthorities());
+                UserDetails userDetails;
+                if (claimsAuth && claims.getUserId() != null) {
+                    // 声明认证：角色与用户ID均已签名，通过状态快照识别被禁用/删除或角色已变更的账号
+                    if (!userStatusCache.isActive(username, claims.getRole())) {
+                        logger.warn("账号已禁用、不存在或角色已变更，用户名: {}", username);
+                        recordAuth(sample, request, "disabled", claims.getRole());
+                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                        response.setContentType("application/json;charset=utf-8");
+                        PrintWriter out = response.getWriter();
+                        out.write(JSON.toJSONString(Result.error("账号已被禁用或角色已变更，请重新登录或联系管理员")));
+                        out.flush();
+                        out.close();
+                        return;
+                    }
+                    userDetails = LoginUser.fromClaims(claims);
                 } else {
-                    logger.warn("Token验证失败，用户名: {}", username);
-                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                    response.setContentType("application/json;charset=utf-8");
-                    PrintWriter out = response.getWriter();
-                    // 替换2：Result.fail → Result.error（自定义错误消息）
-                    out.write(JSON.toJSONString(Result.error("Token已过期或无效")));
-                    out.flush();
-                    out.close();
-                    return;
+                    // 兼容旧Token（无用户ID声明）或关闭声明认证时，回退到数据库加载
+                    userDetails = userDetailsService.loadUserByUsername(username);
                 }
+
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                String role = userDetails.getAuthorities().isEmpty() ? null
+                        : userDetails.getAuthorities().iterator().next().getAuthority();
+                RequestMetricTags.bind(request, role);
+                recordAuth(sample, request, "authenticated", role);
+
+                logger.info("用户{}认证成功，权限已设置: {}", username, userDetails.getAuthorities());
             }
         } catch (RuntimeException e) {
             logger.error("Token处理失败: {}", e.getMessage(), e);
+            recordAuth(sample, request, "invalid_token", null);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json;charset=utf-8");
             PrintWriter out = response.getWriter();
@@ -114,4 +147,13 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
         // 所有校验通过，放行请求
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private void recordAuth(Timer.Sample sample, HttpServletRequest request, String outcome, String role) {
+        sample.stop(Timer.builder("sgms.auth.filter")
+                .description("JWT授权过滤器：Token解析与账号状态校验耗时")
+                .tag("outcome", outcome)
+                .tag("endpoint", RequestMetricTags.endpointOf(request.getServletPath()))
+                .tag("role", RequestMetricTags.roleOf(role))
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * 已验签的Token声明（不可变，一次解析后在过滤器链中复用）
+ */
+@Value
+public class JwtClaims {
+    String username;     // 用户名（Token的subject）
+    String role;         // 角色（带ROLE_前缀，如ROLE_TEACHER）
+    Long userId;         // 用户ID（sys_user.id，旧Token中可能为空）
+    Instant expiration;  // 过期时间
+}
@@ -0,0 +1,80 @@
+package org.example.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 基于Token声明构建的登录用户（不含密码，仅在请求内使用）
+ */
+public class LoginUser implements UserDetails {
+
+    private final Long userId;
+    private final String username;
+    private final String role; // 带ROLE_前缀，如ROLE_TEACHER
+    private final List<GrantedAuthority> authorities;
+
+    public LoginUser(Long userId, String username, String role) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.authorities = role == null || role.isEmpty()
+                ? List.of()
+                : AuthorityUtils.createAuthorityList(role);
+    }
+
+    public static LoginUser fromClaims(JwtClaims claims) {
+        return new LoginUser(claims.getUserId(), claims.getUsername(), claims.getRole());
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+/**
+ * 指标抓取端点鉴权（/actuator/prometheus）
+ * Prometheus使用配置中的静态抓取令牌（Authorization: Bearer &lt;sgms.metrics.scrape-token&gt;），
+ * 不复用登录签发的用户JWT（24小时过期、绑定具体账号，不适合长期运行的抓取任务）；未配置令牌时拒绝全部抓取
+ */
+@Component
+public class ScrapeTokenAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    private static final Logger logger = LoggerFactory.getLogger(ScrapeTokenAuthorizationManager.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Value("${sgms.metrics.scrape-token:}")
+    private String scrapeToken;
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return new AuthorizationDecision(matches(context.getRequest()));
+    }
+
+    private boolean matches(HttpServletRequest request) {
+        if (scrapeToken == null || scrapeToken.isEmpty()) {
+            logger.warn("未配置sgms.metrics.scrape-token，拒绝指标抓取请求");
+            return false;
+        }
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return false;
+        }
+        // 定长比较，避免按响应时间逐字节猜测令牌
+        byte[] presented = header.substring(BEARER_PREFIX.length()).trim().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(presented, scrapeToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带耗时统计的密码编码器（包装BCrypt）
+ * 登录时由DaoAuthenticationProvider调用matches，注册时调用encode；BCrypt刻意耗时，是登录接口延迟的主要来源
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("sgms.password.encode")
+                .description("密码加密耗时")
+                .register(meterRegistry);
+        this.matchTimer = checkTimer(meterRegistry, "match");
+        this.mismatchTimer = checkTimer(meterRegistry, "mismatch");
+    }
+
+    private static Timer checkTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("sgms.password.check")
+                .description("登录密码校验耗时")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        (matched ? matchTimer : mismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
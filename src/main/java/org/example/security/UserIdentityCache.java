@@ -0,0 +1,139 @@
+package org.example.security;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import org.example.entity.Student;
+import org.example.entity.SysUser;
+import org.example.entity.Teacher;
+import org.example.mapper.StudentMapper;
+import org.example.mapper.SysUserMapper;
+import org.example.mapper.TeacherMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户身份缓存（userId + 角色 → teacherId/studentId）
+ * 替代控制器中逐请求的 selectByUsername + getTeacherIdByUserId / selectByUserId 查询链。
+ * 以Token中的userId与角色为键，账号改名/换角色后旧条目不会被新Token命中；
+ * 未关联到教师/学生档案的解析结果不缓存，档案补录后下一次请求即可生效
+ */
+@Component
+public class UserIdentityCache {
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityCache.class);
+
+    @Autowired
+    private SysUserMapper sysUserMapper;
+
+    @Autowired
+    private TeacherMapper teacherMapper;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Value("${sgms.identity-cache.ttl:600000}") // 身份缓存有效期（毫秒）
+    private long ttl;
+
+    @Value("${sgms.identity-cache.max-size:10000}") // 最多缓存的用户数
+    private int maxSize;
+
+    private LRUCache<String, CurrentUser> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = CacheUtil.newLRUCache(maxSize, ttl);
+    }
+
+    /**
+     * 解析用户身份（同一用户在有效期内只查询一次）
+     * @param userId 用户ID（来自Token声明，旧Token为空时按用户名查询）
+     * @param username 用户名
+     * @param role 角色（带ROLE_前缀）
+     * @return 用户身份；用户不存在时返回null
+     */
+    public CurrentUser resolve(Long userId, String username, String role) {
+        String key = cacheKey(userId, username, role);
+        CurrentUser cached = cache.get(key, false);
+        if (cached != null && cached.getUsername().equals(username)) {
+            return cached;
+        }
+        CurrentUser loaded = load(userId, username, role);
+        if (loaded != null && isResolved(loaded)) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 主动失效（如教师/学生档案变更、账号改名或调整角色）
+     * @param username 用户名
+     */
+    public void evict(String username) {
+        List<String> keys = new ArrayList<>();
+        for (String key : cache.keySet()) {
+            CurrentUser user = cache.get(key, false);
+            if (user != null && user.getUsername().equals(username)) {
+                keys.add(key);
+            }
+        }
+        keys.forEach(cache::remove);
+    }
+
+    /**
+     * 清空全部身份缓存（批量修改账号或档案后调用）
+     */
+    public void evictAll() {
+        cache.clear();
+    }
+
+    // 缓存键：Token带userId时按 userId + 角色；旧Token（无userId）按 用户名 + 角色
+    private static String cacheKey(Long userId, String username, String role) {
+        return (userId != null ? "id:" + userId : "name:" + username) + "|" + role;
+    }
+
+    // 教师/学生角色必须关联到档案才缓存，避免把“未关联”结果固定一个TTL周期
+    private static boolean isResolved(CurrentUser user) {
+        if (user.isTeacher()) {
+            return user.getTeacherId() != null;
+        }
+        if (user.isStudent()) {
+            return user.getStudentId() != null;
+        }
+        return true;
+    }
+
+    private CurrentUser load(Long userId, String username, String role) {
+        if (userId == null) {
+            SysUser sysUser = sysUserMapper.selectByUsername(username);
+            if (sysUser == null) {
+                logger.warn("用户名{}不存在", username);
+                return null;
+            }
+            userId = sysUser.getId();
+        }
+
+        Long teacherId = null;
+        Integer studentId = null;
+        if ("ROLE_TEACHER".equals(role)) {
+            Teacher teacher = teacherMapper.selectOne(new LambdaQueryWrapper<Teacher>()
+                    .eq(Teacher::getUserId, userId));
+            teacherId = teacher != null ? teacher.getId() : null;
+        } else if ("ROLE_STUDENT".equals(role)) {
+            Student student = studentMapper.selectByUserId(userId.intValue());
+            if (student == null) {
+                // 兼容历史数据：学号与用户名一致
+                student = studentMapper.selectByStudentNo(username);
+            }
+            studentId = student != null ? student.getId() : null;
+        }
+        logger.debug("身份解析完成：用户名={}, userId={}, teacherId={}, studentId={}", username, userId, teacherId, studentId);
+        return new CurrentUser(userId, username, role, teacherId, studentId);
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.security;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import org.example.entity.SysUser;
+import org.example.mapper.SysUserMapper;
+import org.example.utils.UserUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 用户状态快照（短时、有界缓存）
+ * 基于Token声明认证时不再逐请求查询sys_user，但仍需识别被禁用/删除或角色已变更的账号：
+ * 每个用户名最多每个TTL周期查询一次状态与角色，缓存容量有上限（LRU淘汰）。
+ * 应用内没有修改账号状态/角色的接口（直接改库）：改库后调用 /admin/cache/user-status/evict 立即生效，
+ * 否则最迟在一个TTL（jwt.status-cache.ttl，默认60秒）后生效，TTL不宜调长
+ */
+@Component
+public class UserStatusCache {
+    private static final Logger logger = LoggerFactory.getLogger(UserStatusCache.class);
+
+    // 状态：0-禁用，1-启用
+    private static final int STATUS_DISABLED = 0;
+    // 用户不存在时缓存的占位快照
+    private static final SysUser NOT_FOUND = new SysUser();
+
+    @Autowired
+    private SysUserMapper sysUserMapper;
+
+    @Value("${jwt.status-cache.ttl:60000}") // 快照有效期（毫秒）
+    private long ttl;
+
+    @Value("${jwt.status-cache.max-size:10000}") // 最多缓存的用户数
+    private int maxSize;
+
+    private LRUCache<String, SysUser> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = CacheUtil.newLRUCache(maxSize, ttl);
+    }
+
+    /**
+     * 判断用户是否可用（存在、未被禁用，且角色与Token声明一致）
+     * @param username 用户名
+     * @param role Token中的角色声明（带ROLE_前缀；为空时不比较角色）
+     * @return 是否可用
+     */
+    public boolean isActive(String username, String role) {
+        SysUser user = cache.get(username, false, () -> loadStatus(username));
+        // status为空的历史数据视为启用
+        if (user == NOT_FOUND || (user.getStatus() != null && user.getStatus() == STATUS_DISABLED)) {
+            return false;
+        }
+        // 角色已变更的旧Token不再按旧角色放行（需重新登录签发）
+        return role == null || user.getRole() == null || UserUtils.roleAuthority(user.getRole()).equals(role);
+    }
+
+    /**
+     * 用户状态/角色变更后主动失效（如禁用账号、调整角色）
+     * @param username 用户名
+     */
+    public void evict(String username) {
+        cache.remove(username);
+    }
+
+    /**
+     * 清空全部快照（批量修改账号后调用）
+     */
+    public void evictAll() {
+        cache.clear();
+    }
+
+    /**
+     * 当前缓存的用户数
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    private SysUser loadStatus(String username) {
+        SysUser user = sysUserMapper.selectStatusByUsername(username);
+        if (user == null) {
+            logger.warn("状态快照：用户不存在，用户名={}", username);
+            return NOT_FOUND;
+        }
+        return user;
+    }
+}
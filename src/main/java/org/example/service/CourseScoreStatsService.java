@@ -0,0 +1,52 @@
+package org.example.service;
+
+import org.example.dto.CourseStatsDelta;
+import org.example.dto.ScoreAggregateDTO;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 课程成绩统计读模型服务（course_score_stats）
+ * 成绩写入时在同一事务内增量维护，读取为按主键的单行查询，与课程人数无关
+ */
+public interface CourseScoreStatsService {
+
+    /**
+     * 读取课程统计（只读；统计行尚未物化时从score表只读聚合）
+     * @param courseId 课程ID
+     * @return 统计结果（课程无成绩时返回null）
+     */
+    ScoreAggregateDTO getCourseStats(Integer courseId);
+
+    /**
+     * 批量读取课程统计（一次主键IN查询，未物化的课程一次GROUP BY只读聚合补齐）
+     * @param courseIds 课程ID
+     * @return 课程ID → 统计结果（无成绩的课程不包含）
+     */
+    Map<Integer, ScoreAggregateDTO> getCourseStats(Collection<Integer> courseIds);
+
+    /**
+     * 物化尚未有统计行的课程（启动时调用，已存在的行不覆盖）
+     * @return 物化的课程数
+     */
+    int materializeMissing();
+
+    /**
+     * 应用成绩写入产生的增量（须在成绩写入的同一事务内、写入之后调用）
+     * @param deltas 按课程汇总的增量
+     */
+    void applyDeltas(Collection<CourseStatsDelta> deltas);
+
+    /**
+     * 从score表重算单门课程统计
+     * @param courseId 课程ID
+     */
+    void rebuildCourse(Integer courseId);
+
+    /**
+     * 全量重建统计表（修复漂移；重建期间成绩写入会短暂等待）
+     * @return 重建的课程数
+     */
+    int rebuildAll();
+}
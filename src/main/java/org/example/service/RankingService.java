@@ -0,0 +1,28 @@
+package org.example.service;
+
+import org.example.dto.ScoreRankDTO;
+import org.example.vo.StudentRank;
+
+import java.util.List;
+
+/**
+ * 成绩排名服务（课程内、班级内名次与百分位名次）
+ */
+public interface RankingService {
+
+    /**
+     * 课程排名列表（RANK/PERCENT_RANK窗口函数，分数降序）
+     * @param courseId 课程ID
+     * @param className 班级（可为空；不为空时只返回该班学生，名次仍为课程内与班级内名次）
+     * @return 排名行（无成绩的学生不参与排名）
+     */
+    List<ScoreRankDTO> getCourseRanking(Integer courseId, String className);
+
+    /**
+     * 学生在课程内、班级内的名次（基于缓存的课程排名表二分查找）
+     * @param courseId 课程ID
+     * @param studentId 学生ID
+     * @return 名次；学生在该课程无成绩时返回null
+     */
+    StudentRank getStudentRank(Integer courseId, Integer studentId);
+}
@@ -0,0 +1,30 @@
+package org.example.service;
+
+import org.example.dto.ScoreImportDTO;
+import org.example.vo.ScoreImportResult;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 成绩批量导入服务（Excel/CSV上传）
+ */
+public interface ScoreImportService {
+
+    /**
+     * 流式读取导入文件（按扩展名识别xlsx/xls/csv，超过最大行数时停止读取）
+     * @param in 文件输入流
+     * @param fileName 原始文件名
+     * @return 数据行（已记录Excel行号）
+     */
+    List<ScoreImportDTO> readRows(InputStream in, String fileName);
+
+    /**
+     * 批量导入成绩（集合化校验学生/课程/权限，单事务内按批次写入）
+     * @param teacherId 当前教师ID
+     * @param defaultCourseId 默认课程ID（行内未填写课程ID时使用，可为空）
+     * @param rows 数据行
+     * @return 导入结果（含逐行错误报告）
+     */
+    ScoreImportResult importScores(Long teacherId, Integer defaultCourseId, List<ScoreImportDTO> rows);
+}
@@ -6,8 +6,13 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import org.example.dto.ScoreDTO;
 import org.example.dto.ScoreSegmentCountDTO; // 新增：成绩分段计数DTO
 import org.example.entity.Score;
+import org.example.utils.ScoreBuckets;
+import org.example.utils.ScoreCursor;
 import org.example.vo.ScoreSegmentStats; // 新增：成绩分段统计VO
 
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -35,6 +40,44 @@ public interface ScoreService extends IService<Score> {
      */
     IPage<ScoreDTO> getScoreListByTeacher(Page<ScoreDTO> page, Long teacherId, String studentName, Integer courseId);
 
+    /**
+     * 学生成绩游标分页查询（按 course_id, id 顺序，深页延迟恒定）
+     * @param studentId 学生ID
+     * @param courseName 课程名（模糊匹配）
+     * @param cursor 续读游标（首页为ScoreCursor.first()）
+     * @param limit 读取条数
+     * @return 成绩列表
+     */
+    List<ScoreDTO> getScoreListByStudentIdAfter(Integer studentId, String courseName, ScoreCursor cursor, int limit);
+
+    /**
+     * 教师成绩游标分页查询（按 course_id, id 顺序，深页延迟恒定）
+     * @param teacherId 教师ID
+     * @param studentName 学生姓名（模糊匹配）
+     * @param courseId 课程ID
+     * @param cursor 续读游标（首页为ScoreCursor.first()）
+     * @param limit 读取条数
+     * @return 成绩列表
+     */
+    List<ScoreDTO> getScoreListByTeacherAfter(Long teacherId, String studentName, Integer courseId, ScoreCursor cursor, int limit);
+
+    /**
+     * 学生成绩总数（游标分页可选返回）
+     * @param studentId 学生ID
+     * @param courseName 课程名（模糊匹配）
+     * @return 总数
+     */
+    long countScoreListByStudentId(Integer studentId, String courseName);
+
+    /**
+     * 教师成绩总数（游标分页可选返回）
+     * @param teacherId 教师ID
+     * @param studentName 学生姓名（模糊匹配）
+     * @param courseId 课程ID
+     * @return 总数
+     */
+    long countScoreListByTeacher(Long teacherId, String studentName, Integer courseId);
+
     /**
      * 根据用户ID获取教师ID
      * @param userId 用户ID
@@ -50,12 +93,28 @@ public interface ScoreService extends IService<Score> {
     List<Map<String, Object>> getTeacherCourses(Long teacherId);
 
     /**
-     * 保存/更新成绩
-     * @param score 成绩实体
-     * @return 是否成功
+     * 保存/更新成绩（判重由唯一约束保证，单条语句完成）
+     * @param score 成绩实体（id为空时新增）
+     * @return 是否成功（更新时记录不存在返回false）
+     * @throws org.springframework.dao.DuplicateKeyException 该学生已存在该课程成绩
      */
     boolean saveOrUpdateScore(Score score);
 
+    /**
+     * 新增或覆盖成绩（按学生+课程upsert，已存在时更新分数与考试日期）
+     * @param score 成绩实体（回填id）
+     * @return 是否成功
+     */
+    boolean upsertScore(Score score);
+
+    /**
+     * 批量新增或覆盖成绩（多值upsert，按批次执行；同一学生+课程重复时以最后一条为准）
+     * @param scores 成绩列表
+     * @param batchSize 每条语句的行数
+     * @return 新增条数（其余为覆盖更新）
+     */
+    int upsertScores(List<Score> scores, int batchSize);
+
     /**
      * 删除成绩（单条）
      * @param id 成绩ID（Integer类型，匹配数据库）
@@ -103,6 +162,23 @@ public interface ScoreService extends IService<Score> {
      */
     List<ScoreDTO> getScoreListByStudentId(Integer studentId);
 
+    // ========== 流式导出方法 ==========
+    /**
+     * 流式导出课程成绩为Excel（MyBatis游标逐行读取，堆内存占用与行数无关）
+     * @param courseId 课程ID
+     * @param out 输出流（调用方负责关闭）
+     * @return 导出行数
+     */
+    long exportScoresByCourseId(Integer courseId, OutputStream out);
+
+    /**
+     * 流式导出教师全部课程成绩为Excel
+     * @param teacherId 教师ID
+     * @param out 输出流（调用方负责关闭）
+     * @return 导出行数
+     */
+    long exportScoresByTeacher(Long teacherId, OutputStream out);
+
     // ========== 权限校验方法（适配Integer类型） ==========
     /**
      * 校验教师是否有该课程的操作权限
@@ -128,6 +204,14 @@ public interface ScoreService extends IService<Score> {
      */
     boolean checkBatchScorePermission(Long teacherId, List<Integer> scoreIds);
 
+    /**
+     * 查询教师无权操作的成绩ID（单条SQL，与ID个数无关）
+     * @param teacherId 教师ID
+     * @param scoreIds 成绩ID列表
+     * @return 无权操作的ID（含不存在的ID），全部有权时为空列表
+     */
+    List<Integer> findUnauthorizedScoreIds(Long teacherId, Collection<Integer> scoreIds);
+
     // ========== 新增成绩分段统计方法 ==========
     /**
      * 查询课程成绩各分数段人数计数
@@ -137,9 +221,53 @@ public interface ScoreService extends IService<Score> {
     ScoreSegmentCountDTO getScoreSegmentCounts(Integer courseId);
 
     /**
-     * 查询课程成绩分段统计完整信息（含平均分、最高分、最低分、分数段等）
+     * 查询课程成绩分段统计完整信息（含平均分、最高分、最低分、中位数/P25/P75/P90、标准差、分数段等）
      * @param courseId 课程ID（Integer类型）
+     * @param buckets 分段定义
      * @return 成绩分段统计VO
      */
-    ScoreSegmentStats getScoreSegmentStats(Integer courseId);
-}
\ No newline at end of file
+    ScoreSegmentStats getScoreSegmentStats(Integer courseId, ScoreBuckets buckets);
+
+    /**
+     * 重载：按默认分段（0-60/60-80/80-100）查询课程成绩分段统计
+     * @param courseId 课程ID（Integer类型）
+     * @return 成绩分段统计VO
+     */
+    default ScoreSegmentStats getScoreSegmentStats(Integer courseId) {
+        return getScoreSegmentStats(courseId, ScoreBuckets.DEFAULT);
+    }
+
+    /**
+     * 批量查询多门课程的成绩分段统计（一次读取全部课程统计行）
+     * @param courseIds 课程ID（调用方已完成权限校验）
+     * @param buckets 分段定义
+     * @return 课程ID → 成绩分段统计VO（按传入顺序）
+     */
+    Map<Integer, ScoreSegmentStats> getScoreSegmentStatsBatch(Collection<Integer> courseIds, ScoreBuckets buckets);
+
+    /**
+     * 群体成绩统计（按课程集合与考试日期筛选的即席分析）
+     * 成绩以十分位整数流式读入int[]，由统计内核一次扫描得到全部指标
+     * @param courseIds 课程ID（不可为空）
+     * @param examFrom 考试日期起（含，可为空）
+     * @param examTo 考试日期止（含，可为空）
+     * @param buckets 分段定义
+     * @return 成绩分段统计VO
+     */
+    ScoreSegmentStats getCohortStats(Collection<Integer> courseIds, LocalDate examFrom, LocalDate examTo, ScoreBuckets buckets);
+
+    /**
+     * 查询教师无权访问的课程ID（内存课程归属索引，不访问数据库）
+     * @param teacherId 教师ID
+     * @param courseIds 课程ID
+     * @return 无权访问的ID（含不存在的课程），全部有权时为空列表
+     */
+    List<Integer> findUnauthorizedCourseIds(Long teacherId, Collection<Integer> courseIds);
+
+    /**
+     * 教师授课课程ID（内存课程归属索引）
+     * @param teacherId 教师ID
+     * @return 课程ID列表
+     */
+    List<Integer> getTeacherCourseIds(Long teacherId);
+}
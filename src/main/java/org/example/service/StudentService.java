@@ -1,6 +1,9 @@
 package org.example.service;
 
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import org.example.dto.StudentDirectoryDTO;
 import org.example.dto.StudentOptionDTO;
 import org.example.entity.Student;
 import java.util.List;
@@ -42,4 +45,21 @@ public interface StudentService extends IService<Student> {
      * @return 全量学生选项DTO列表（适配前端“全部学生”下拉场景）
      */
     List<StudentOptionDTO> getAllStudentOptions();
-}
\ No newline at end of file
+
+    /**
+     * 学生名录分页查询
+     * @param page 分页参数
+     * @param keyword 学号或姓名前缀（可为空）
+     * @param className 班级（可为空）
+     * @return 分页结果
+     */
+    IPage<StudentDirectoryDTO> getStudentDirectoryPage(Page<StudentDirectoryDTO> page, String keyword, String className);
+
+    /**
+     * 学生联想搜索（内存前缀索引，不访问数据库）
+     * @param keyword 学号或姓名前缀
+     * @param limit 最多返回条数
+     * @return 匹配的学生（学号匹配在前）
+     */
+    List<StudentDirectoryDTO> searchStudents(String keyword, int limit);
+}
@@ -0,0 +1,34 @@
+package org.example.service;
+
+import org.example.vo.StudentGpa;
+import org.example.vo.Transcript;
+
+import java.util.List;
+
+/**
+ * 成绩单与学分加权绩点服务
+ */
+public interface TranscriptService {
+
+    /**
+     * 学生成绩单：总加权绩点、学期绩点、已获学分与课程明细（按学生数据版本缓存，成绩写入后自动失效）
+     * @param studentId 学生ID
+     * @return 成绩单；学生不存在时返回null
+     */
+    Transcript getTranscript(Integer studentId);
+
+    /**
+     * 班级绩点批量计算：一条流式查询读取全班成绩，逐学生归并
+     * @param className 班级
+     * @return 各学生绩点（按绩点降序，无可计算课程的学生排在最后）
+     */
+    List<StudentGpa> getClassGpa(String className);
+
+    /**
+     * 教师是否为该班授课（班级绩点的访问权限：只能查看自己授课班级）
+     * @param teacherId 教师ID
+     * @param className 班级
+     * @return 是否授课
+     */
+    boolean checkTeacherClassPermission(Long teacherId, String className);
+}
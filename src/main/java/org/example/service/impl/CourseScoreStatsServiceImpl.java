@@ -0,0 +1,154 @@
+package org.example.service.impl;
+
+import org.example.cache.ScoreDataVersion;
+import org.example.dto.CourseStatsDelta;
+import org.example.dto.ScoreAggregateDTO;
+import org.example.mapper.CourseScoreStatsMapper;
+import org.example.service.CourseScoreStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 课程成绩统计读模型服务实现
+ * 增量路径：先UPDATE累加总数与直方图对应桶（常态1条语句）；统计行不存在时从score表聚合物化（已包含本次写入），
+ * 物化因并发事务抢先插入而落空时再UPDATE一次，保证每次写入恰好计入一次；课程无成绩时不保留统计行。
+ * 读取路径为只读事务，不写统计表：未物化的课程（历史数据，尚无成绩写入）只读聚合，由启动补齐或管理接口重建物化
+ */
+@Service
+public class CourseScoreStatsServiceImpl implements CourseScoreStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(CourseScoreStatsServiceImpl.class);
+
+    @Autowired
+    private CourseScoreStatsMapper courseScoreStatsMapper;
+
+    @Autowired
+    private ScoreDataVersion scoreDataVersion;
+
+    // 经代理调用自身事务方法（启动重建）
+    @Lazy
+    @Autowired
+    private CourseScoreStatsService self;
+
+    @Value("${sgms.course-stats.rebuild-on-startup:false}") // 启动时全量重建
+    private boolean rebuildOnStartup;
+
+    @Value("${sgms.course-stats.materialize-on-startup:true}") // 启动时补齐尚未物化的课程
+    private boolean materializeOnStartup;
+
+    // 启动补齐时每条物化语句的课程数
+    private static final int MATERIALIZE_BATCH = 200;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScoreAggregateDTO getCourseStats(Integer courseId) {
+        return getCourseStats(List.of(courseId)).get(courseId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, ScoreAggregateDTO> getCourseStats(Collection<Integer> courseIds) {
+        Map<Integer, ScoreAggregateDTO> result = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return result;
+        }
+        for (ScoreAggregateDTO stats : courseScoreStatsMapper.selectByCourseIds(courseIds)) {
+            result.put(stats.getCourseId(), stats);
+        }
+        // 尚未物化的课程：一次GROUP BY只读聚合（不加锁、不写入；物化由成绩写入、启动补齐或重建完成）
+        List<Integer> missing = new ArrayList<>();
+        for (Integer courseId : courseIds) {
+            if (!result.containsKey(courseId)) {
+                missing.add(courseId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (ScoreAggregateDTO stats : courseScoreStatsMapper.selectFromScore(missing)) {
+                result.put(stats.getCourseId(), stats);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int materializeMissing() {
+        List<Integer> missing = courseScoreStatsMapper.selectUnmaterializedCourseIds();
+        int rows = 0;
+        for (int from = 0; from < missing.size(); from += MATERIALIZE_BATCH) {
+            rows += courseScoreStatsMapper.materialize(missing.subList(from, Math.min(from + MATERIALIZE_BATCH, missing.size())));
+        }
+        if (rows > 0) {
+            logger.info("课程成绩统计已补齐：课程数={}", rows);
+        }
+        return rows;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void applyDeltas(Collection<CourseStatsDelta> deltas) {
+        for (CourseStatsDelta delta : deltas) {
+            if (delta.isRecompute()) {
+                // 无法得知旧分数（如并发写入的覆盖），按课程重算
+                courseScoreStatsMapper.deleteByCourseIds(List.of(delta.getCourseId()));
+                courseScoreStatsMapper.rebuildByCourseIds(List.of(delta.getCourseId()));
+                continue;
+            }
+            if (courseScoreStatsMapper.applyDelta(delta) > 0) {
+                continue;
+            }
+            if (courseScoreStatsMapper.materialize(List.of(delta.getCourseId())) == 0) {
+                courseScoreStatsMapper.applyDelta(delta);
+            }
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuildCourse(Integer courseId) {
+        courseScoreStatsMapper.lockScoreTable();
+        courseScoreStatsMapper.deleteByCourseIds(List.of(courseId));
+        courseScoreStatsMapper.rebuildByCourseIds(List.of(courseId));
+        // 重建可能修正了漂移，令该课程已缓存的统计失效
+        scoreDataVersion.bump(courseId, null);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int rebuildAll() {
+        courseScoreStatsMapper.lockScoreTable();
+        courseScoreStatsMapper.deleteAll();
+        int rows = courseScoreStatsMapper.rebuildAll();
+        scoreDataVersion.bumpAll();
+        logger.info("课程成绩统计已全量重建：课程数={}", rows);
+        return rows;
+    }
+
+    /**
+     * 启动参数 --sgms.course-stats.rebuild-on-startup=true 时全量重建，否则默认补齐尚未物化的课程（数据库不可用时仅记录日志）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            if (rebuildOnStartup) {
+                self.rebuildAll();
+            } else if (materializeOnStartup) {
+                self.materializeMissing();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("启动时重建课程成绩统计失败：{}", e.getMessage());
+        }
+    }
+}
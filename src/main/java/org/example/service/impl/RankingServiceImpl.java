@@ -0,0 +1,71 @@
+package org.example.service.impl;
+
+import org.example.cache.CourseRankCache;
+import org.example.dto.ScoreRankDTO;
+import org.example.mapper.ScoreMapper;
+import org.example.service.RankingService;
+import org.example.utils.ScoreHistogram;
+import org.example.utils.ScoreRankTable;
+import org.example.vo.StudentRank;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * 成绩排名服务实现
+ * 排名列表直接由窗口函数计算；单个学生的名次查询走按课程版本缓存的排名表，写入后首次查询时重建
+ */
+@Service
+public class RankingServiceImpl implements RankingService {
+
+    @Autowired
+    private ScoreMapper scoreMapper;
+
+    @Autowired
+    private CourseRankCache courseRankCache;
+
+    @Override
+    public List<ScoreRankDTO> getCourseRanking(Integer courseId, String className) {
+        return scoreMapper.selectCourseRanking(courseId, className);
+    }
+
+    @Override
+    public StudentRank getStudentRank(Integer courseId, Integer studentId) {
+        if (courseId == null || studentId == null) {
+            return null;
+        }
+        ScoreRankTable table = courseRankCache.get(courseId,
+                () -> ScoreRankTable.of(scoreMapper.selectCourseRankEntries(courseId)));
+        int index = table.indexOf(studentId);
+        if (index < 0) {
+            return null;
+        }
+
+        int tenths = table.scoreTenthsAt(index);
+        String className = table.classNameAt(index);
+        int courseRank = table.rank(tenths);
+        StudentRank rank = new StudentRank();
+        rank.setCourseId(courseId);
+        rank.setStudentId(studentId);
+        rank.setScore(ScoreHistogram.toScore(tenths));
+        rank.setCourseRank(courseRank);
+        rank.setCourseTotal(table.size());
+        rank.setCoursePercentRank(toPercentRank(courseRank, table.size()));
+        rank.setClassName(className);
+        if (className != null) {
+            int classRank = table.classRank(className, tenths);
+            int classSize = table.classSize(className);
+            rank.setClassRank(classRank);
+            rank.setClassTotal(classSize);
+            rank.setClassPercentRank(toPercentRank(classRank, classSize));
+        }
+        return rank;
+    }
+
+    private static BigDecimal toPercentRank(int rank, int size) {
+        return BigDecimal.valueOf(ScoreRankTable.percentRank(rank, size)).setScale(4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.service.impl;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.alibaba.excel.support.ExcelTypeEnum;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import org.example.dto.ScoreImportDTO;
+import org.example.entity.Course;
+import org.example.entity.Score;
+import org.example.entity.Student;
+import org.example.mapper.CourseMapper;
+import org.example.mapper.StudentMapper;
+import org.example.service.ScoreImportService;
+import org.example.service.ScoreService;
+import org.example.vo.ScoreImportResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 成绩批量导入服务实现
+ * 校验全部集合化：学号、课程与课程归属各一次查询，与行数无关；写入按批次走多值upsert
+ */
+@Service
+public class ScoreImportServiceImpl implements ScoreImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ScoreImportServiceImpl.class);
+
+    private static final BigDecimal MAX_SCORE = new BigDecimal("100.0");
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("yyyy-M-d"),
+            DateTimeFormatter.ofPattern("yyyy/M/d"),
+            DateTimeFormatter.BASIC_ISO_DATE
+    );
+
+    @Autowired
+    private ScoreService scoreService;
+
+    @Autowired
+    private StudentMapper studentMapper;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Value("${sgms.score.import.batch-size:500}") // 每条多值upsert语句的行数
+    private int batchSize;
+
+    @Value("${sgms.score.import.max-rows:10000}") // 单次导入最大行数
+    private int maxRows;
+
+    @Override
+    public List<ScoreImportDTO> readRows(InputStream in, String fileName) {
+        List<ScoreImportDTO> rows = new ArrayList<>();
+        EasyExcel.read(in, ScoreImportDTO.class, new ReadListener<ScoreImportDTO>() {
+                    @Override
+                    public void invoke(ScoreImportDTO data, AnalysisContext context) {
+                        data.setRowNum(context.readRowHolder().getRowIndex() + 1);
+                        rows.add(data);
+                    }
+
+                    @Override
+                    public boolean hasNext(AnalysisContext context) {
+                        return rows.size() <= maxRows;
+                    }
+
+                    @Override
+                    public void doAfterAllAnalysed(AnalysisContext context) {
+                    }
+                })
+                .excelType(resolveExcelType(fileName))
+                .charset(StandardCharsets.UTF_8)
+                .sheet()
+                .doRead();
+        if (rows.size() > maxRows) {
+            throw new IllegalArgumentException("单次最多导入" + maxRows + "行");
+        }
+        return rows;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public ScoreImportResult importScores(Long teacherId, Integer defaultCourseId, List<ScoreImportDTO> rows) {
+        ScoreImportResult result = new ScoreImportResult();
+        result.setTotalRows(rows.size());
+
+        // 1. 逐行字段校验（不访问数据库）
+        List<ParsedRow> parsedRows = new ArrayList<>(rows.size());
+        for (ScoreImportDTO row : rows) {
+            ParsedRow parsed = parseRow(row, defaultCourseId, result);
+            if (parsed != null) {
+                parsedRows.add(parsed);
+            }
+        }
+        if (parsedRows.isEmpty()) {
+            return result;
+        }
+
+        // 2. 集合化校验：学号 → 学生ID（一次查询）
+        Set<String> studentNos = new HashSet<>();
+        Set<Integer> courseIds = new HashSet<>();
+        for (ParsedRow row : parsedRows) {
+            studentNos.add(row.studentNo);
+            courseIds.add(row.courseId);
+        }
+        Map<String, Integer> studentIdByNo = new HashMap<>();
+        for (Student student : studentMapper.selectList(new LambdaQueryWrapper<Student>()
+                .select(Student::getId, Student::getStudentNo)
+                .in(Student::getStudentNo, studentNos))) {
+            studentIdByNo.put(student.getStudentNo(), student.getId());
+        }
+
+        // 3. 集合化权限校验：课程 → 授课教师（一次查询）
+        Map<Integer, Long> teacherIdByCourse = new HashMap<>();
+        for (Course course : courseMapper.selectList(new LambdaQueryWrapper<Course>()
+                .select(Course::getId, Course::getTeacherId)
+                .in(Course::getId, courseIds))) {
+            teacherIdByCourse.put(course.getId().intValue(), course.getTeacherId());
+        }
+
+        // 4. 逐行应用校验结果，并剔除文件内重复的“学生+课程”
+        Map<Long, Integer> firstRowByPair = new HashMap<>();
+        List<ParsedRow> validRows = new ArrayList<>(parsedRows.size());
+        for (ParsedRow row : parsedRows) {
+            Integer studentId = studentIdByNo.get(row.studentNo);
+            if (studentId == null) {
+                result.addError(row.rowNum, row.studentNo, "学号不存在");
+                continue;
+            }
+            if (!teacherIdByCourse.containsKey(row.courseId)) {
+                result.addError(row.rowNum, row.studentNo, "课程不存在：" + row.courseId);
+                continue;
+            }
+            if (!teacherId.equals(teacherIdByCourse.get(row.courseId))) {
+                result.addError(row.rowNum, row.studentNo, "无权操作该课程成绩：" + row.courseId);
+                continue;
+            }
+            Integer firstRow = firstRowByPair.putIfAbsent(pairKey(studentId, row.courseId), row.rowNum);
+            if (firstRow != null) {
+                result.addError(row.rowNum, row.studentNo, "与第" + firstRow + "行重复");
+                continue;
+            }
+            row.studentId = studentId;
+            validRows.add(row);
+        }
+        if (validRows.isEmpty()) {
+            return result;
+        }
+
+        // 5. 单事务内按批次多值upsert（INSERT ... ON CONFLICT DO UPDATE），新增/覆盖由数据库在同一语句内判定
+        List<Score> scores = new ArrayList<>(validRows.size());
+        for (ParsedRow row : validRows) {
+            Score score = new Score();
+            score.setStudentId(row.studentId);
+            score.setCourseId(row.courseId);
+            score.setScore(row.score);
+            score.setExamTime(row.examTime);
+            scores.add(score);
+        }
+        int inserted = scoreService.upsertScores(scores, batchSize);
+        int updated = scores.size() - inserted;
+
+        result.setInsertedCount(inserted);
+        result.setUpdatedCount(updated);
+        logger.info("成绩导入完成：教师={}, 总行数={}, 新增={}, 更新={}, 失败={}",
+                teacherId, rows.size(), inserted, updated, result.getErrors().size());
+        return result;
+    }
+
+    // 字段级校验，失败时记录错误并返回null
+    private ParsedRow parseRow(ScoreImportDTO row, Integer defaultCourseId, ScoreImportResult result) {
+        String studentNo = trimToNull(row.getStudentNo());
+        if (studentNo == null) {
+            result.addError(row.getRowNum(), null, "学号不能为空");
+            return null;
+        }
+
+        Integer courseId = defaultCourseId;
+        String courseText = trimToNull(row.getCourseId());
+        if (courseText != null) {
+            try {
+                courseId = new BigDecimal(courseText).intValueExact();
+            } catch (ArithmeticException | NumberFormatException e) {
+                result.addError(row.getRowNum(), studentNo, "课程ID格式错误：" + courseText);
+                return null;
+            }
+        }
+        if (courseId == null) {
+            result.addError(row.getRowNum(), studentNo, "课程ID不能为空");
+            return null;
+        }
+
+        BigDecimal score;
+        try {
+            String scoreText = trimToNull(row.getScore());
+            score = scoreText == null ? null : new BigDecimal(scoreText).setScale(1, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            score = null;
+        }
+        if (score == null || score.compareTo(BigDecimal.ZERO) < 0 || score.compareTo(MAX_SCORE) > 0) {
+            result.addError(row.getRowNum(), studentNo, "分数需在0-100之间");
+            return null;
+        }
+
+        LocalDate examTime = parseDate(trimToNull(row.getExamTime()));
+        if (examTime == null) {
+            result.addError(row.getRowNum(), studentNo, "考试日期为空或格式错误");
+            return null;
+        }
+
+        ParsedRow parsed = new ParsedRow();
+        parsed.rowNum = row.getRowNum();
+        parsed.studentNo = studentNo;
+        parsed.courseId = courseId;
+        parsed.score = score;
+        parsed.examTime = examTime;
+        return parsed;
+    }
+
+    private LocalDate parseDate(String text) {
+        if (text == null) {
+            return null;
+        }
+        // 兼容带时间部分的单元格文本（如 2025-01-10 00:00:00）
+        String datePart = text.split(" ")[0];
+        for (DateTimeFormatter formatter : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(datePart, formatter);
+            } catch (DateTimeParseException ignored) {
+                // 尝试下一种格式
+            }
+        }
+        return null;
+    }
+
+    private ExcelTypeEnum resolveExcelType(String fileName) {
+        String lower = fileName == null ? "" : fileName.toLowerCase();
+        if (lower.endsWith(".csv")) {
+            return ExcelTypeEnum.CSV;
+        }
+        if (lower.endsWith(".xls")) {
+            return ExcelTypeEnum.XLS;
+        }
+        return ExcelTypeEnum.XLSX;
+    }
+
+    private static long pairKey(Integer studentId, Integer courseId) {
+        return ((long) studentId << 32) | (courseId & 0xFFFFFFFFL);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    // 通过字段校验的行
+    private static class ParsedRow {
+        Integer rowNum;
+        String studentNo;
+        Integer courseId;
+        Integer studentId;
+        BigDecimal score;
+        LocalDate examTime;
+    }
+}
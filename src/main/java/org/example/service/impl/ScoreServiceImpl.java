@@ -1,36 +1,74 @@
 package org.example.service.impl;
 
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.cache.CourseOwnershipCache;
+import org.example.cache.CourseScoreCache;
+import org.example.cache.NameDictionary;
+import org.example.cache.ScoreCountCache;
+import org.example.cache.ScoreDataVersion;
+import org.example.dto.CourseStatsDelta;
+import org.example.dto.ScoreAggregateDTO;
+import org.example.dto.ScoreBinCountDTO;
 import org.example.dto.ScoreDTO;
+import org.example.dto.ScoreExportDTO;
 import org.example.dto.ScoreSegmentCountDTO; // 新增：成绩分段计数DTO
+import org.example.dto.ScoreUpsertResult;
 import org.example.entity.Course;
 import org.example.entity.Score;
 import org.example.entity.Teacher;
 import org.example.mapper.CourseMapper;
 import org.example.mapper.ScoreMapper;
 import org.example.mapper.TeacherMapper;
+import org.example.service.CourseScoreStatsService;
 import org.example.service.ScoreService;
+import org.example.utils.ExcelStreamWriter;
+import org.example.utils.ScoreBuckets;
+import org.example.utils.ScoreCursor;
+import org.example.utils.ScoreHistogram;
+import org.example.utils.RequestMetricTags;
 import org.example.vo.ScoreSegmentDistribution; // 新增：分数段分布VO
 import org.example.vo.ScoreSegmentStats; // 新增：成绩分段统计VO
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.io.OutputStream;
 import java.math.BigDecimal; // 新增：高精度计算
 import java.math.RoundingMode; // 新增：四舍五入模式
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 /**
  * 成绩服务实现类（适配PostgreSQL integer类型 + 前端下拉组件数据格式）
  */
 @Service
 public class ScoreServiceImpl extends ServiceImpl<ScoreMapper, Score> implements ScoreService {
+    private static final Logger logger = LoggerFactory.getLogger(ScoreServiceImpl.class);
+
+    // 多值upsert单条语句最大行数（每行5个绑定参数，PostgreSQL单语句上限65535个）
+    private static final int MAX_UPSERT_BATCH = 5000;
 
     @Autowired
     private TeacherMapper teacherMapper;
@@ -41,20 +79,116 @@ public class ScoreServiceImpl extends ServiceImpl<ScoreMapper, Score> implements
     @Autowired
     private ScoreMapper scoreMapper;
 
+    @Autowired
+    private ScoreDataVersion scoreDataVersion;
+
+    @Autowired
+    private CourseScoreCache courseScoreCache;
+
+    @Autowired
+    private NameDictionary nameDictionary;
+
+    @Autowired
+    private ScoreCountCache scoreCountCache;
+
+    @Autowired
+    private CourseOwnershipCache courseOwnershipCache;
+
+    @Autowired
+    private CourseScoreStatsService courseScoreStatsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 近似总数阈值：规划器估算行数不低于该值时直接使用估算值（0表示关闭，始终精确计数）
+    @Value("${sgms.score.count-estimate-threshold:0}")
+    private long countEstimateThreshold;
+
+    // 窄查询模式：成绩列表只查score表列，学生/课程/教师名称由内存字典补齐（false时回退为五表联接）
+    @Value("${sgms.score.narrow-reads:true}")
+    private boolean narrowReads;
+
     /**
      * 学生成绩分页查询（适配Integer类型studentId）
+     * 总数走缓存（关闭分页插件自带的COUNT），翻页时不再重复计数
      */
     @Override
     public IPage<ScoreDTO> getScoreListByStudentId(Page<ScoreDTO> page, Integer studentId, String courseName) {
-        return scoreMapper.selectScoreListByStudentIdAndCourseNamePage(page, studentId, courseName);
+        page.setSearchCount(false);
+        IPage<ScoreDTO> result;
+        if (narrowReads) {
+            result = scoreMapper.selectScoreRowsByStudentIdPage(page, studentId, courseName);
+            nameDictionary.enrich(result.getRecords());
+        } else {
+            result = scoreMapper.selectScoreListByStudentIdAndCourseNamePage(page, studentId, courseName);
+        }
+        result.setTotal(countScoreListByStudentId(studentId, courseName));
+        return result;
     }
 
     /**
      * 教师成绩分页查询（适配Integer类型courseId）
+     * 总数走缓存（关闭分页插件自带的COUNT），翻页时不再重复计数
      */
     @Override
     public IPage<ScoreDTO> getScoreListByTeacher(Page<ScoreDTO> page, Long teacherId, String studentName, Integer courseId) {
-        return scoreMapper.selectScoreListByTeacherPage(page, teacherId, studentName, courseId);
+        page.setSearchCount(false);
+        IPage<ScoreDTO> result;
+        if (narrowReads) {
+            result = scoreMapper.selectScoreRowsByTeacherPage(page, teacherId, studentName, courseId);
+            nameDictionary.enrich(result.getRecords());
+        } else {
+            result = scoreMapper.selectScoreListByTeacherPage(page, teacherId, studentName, courseId);
+        }
+        result.setTotal(countScoreListByTeacher(teacherId, studentName, courseId));
+        return result;
+    }
+
+    /**
+     * 学生成绩游标分页查询
+     */
+    @Override
+    public List<ScoreDTO> getScoreListByStudentIdAfter(Integer studentId, String courseName, ScoreCursor cursor, int limit) {
+        if (narrowReads) {
+            return nameDictionary.enrich(scoreMapper.selectScoreRowsByStudentIdAfter(
+                    studentId, courseName, cursor.getCourseId(), cursor.getId(), limit));
+        }
+        return scoreMapper.selectScoreListByStudentIdAfter(studentId, courseName, cursor.getCourseId(), cursor.getId(), limit);
+    }
+
+    /**
+     * 教师成绩游标分页查询
+     */
+    @Override
+    public List<ScoreDTO> getScoreListByTeacherAfter(Long teacherId, String studentName, Integer courseId, ScoreCursor cursor, int limit) {
+        if (narrowReads) {
+            return nameDictionary.enrich(scoreMapper.selectScoreRowsByTeacherAfter(
+                    teacherId, studentName, courseId, cursor.getCourseId(), cursor.getId(), limit));
+        }
+        return scoreMapper.selectScoreListByTeacherAfter(teacherId, studentName, courseId, cursor.getCourseId(), cursor.getId(), limit);
+    }
+
+    /**
+     * 学生成绩总数（按筛选条件+学生数据版本缓存）
+     */
+    @Override
+    public long countScoreListByStudentId(Integer studentId, String courseName) {
+        String key = "S|" + studentId + "|" + nullToEmpty(courseName) + "|" + scoreDataVersion.studentVersion(studentId);
+        return scoreCountCache.get(key, () -> estimateOrCount(
+                () -> scoreMapper.explainCountScoreListByStudentIdAndCourseName(studentId, courseName),
+                () -> scoreMapper.countScoreListByStudentIdAndCourseName(studentId, courseName)));
+    }
+
+    /**
+     * 教师成绩总数（按筛选条件+数据版本缓存：指定课程时用课程版本，否则用全表版本）
+     */
+    @Override
+    public long countScoreListByTeacher(Long teacherId, String studentName, Integer courseId) {
+        long version = courseId != null ? scoreDataVersion.courseVersion(courseId) : scoreDataVersion.tableVersion();
+        String key = "T|" + teacherId + "|" + courseId + "|" + nullToEmpty(studentName) + "|" + version;
+        return scoreCountCache.get(key, () -> estimateOrCount(
+                () -> scoreMapper.explainCountScoreListByTeacher(teacherId, studentName, courseId),
+                () -> scoreMapper.countScoreListByTeacher(teacherId, studentName, courseId)));
     }
 
     /**
@@ -92,26 +226,111 @@ public class ScoreServiceImpl extends ServiceImpl<ScoreMapper, Score> implements
 
     /**
      * 保存/更新成绩
+     * 新增走 INSERT ... ON CONFLICT DO NOTHING，更新时唯一约束冲突由数据库抛出，不再先查后写；
+     * 课程统计在同一事务内增量维护
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean saveOrUpdateScore(Score score) {
-        return this.saveOrUpdate(score);
+        Map<Integer, CourseStatsDelta> deltas = new HashMap<>();
+        if (score.getId() == null) {
+            if (scoreMapper.insertScoreIfAbsent(score) == 0) {
+                throw new DuplicateKeyException("该学生已存在该课程成绩");
+            }
+            statsDelta(deltas, score.getCourseId()).add(score.getScore());
+            courseScoreStatsService.applyDeltas(deltas.values());
+            scoreDataVersion.bump(score.getCourseId(), score.getStudentId());
+            return true;
+        }
+        Score old = scoreMapper.updateScoreReturningOld(score);
+        if (old == null) {
+            return false;
+        }
+        // 字段为空时保持原值（与updateScoreReturningOld的COALESCE一致）
+        Integer newCourseId = score.getCourseId() != null ? score.getCourseId() : old.getCourseId();
+        BigDecimal newScore = score.getScore() != null ? score.getScore() : old.getScore();
+        statsDelta(deltas, old.getCourseId()).remove(old.getScore());
+        statsDelta(deltas, newCourseId).add(newScore);
+        courseScoreStatsService.applyDeltas(deltas.values());
+        scoreDataVersion.bump(old.getCourseId(), old.getStudentId());
+        scoreDataVersion.bump(score.getCourseId(), score.getStudentId());
+        return true;
+    }
+
+    /**
+     * 新增或覆盖成绩（单条upsert）
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean upsertScore(Score score) {
+        List<ScoreUpsertResult> results = upsertLocked(List.of(score));
+        if (results.isEmpty()) {
+            return false;
+        }
+        score.setId(results.get(0).getId());
+        Map<Integer, CourseStatsDelta> deltas = new HashMap<>();
+        collectUpsertDeltas(deltas, List.of(score), results);
+        courseScoreStatsService.applyDeltas(deltas.values());
+        scoreDataVersion.bump(score.getCourseId(), score.getStudentId());
+        return true;
+    }
+
+    /**
+     * 批量新增或覆盖成绩（多值upsert；单条语句参数数受限，每批最多MAX_UPSERT_BATCH行）
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int upsertScores(List<Score> scores, int batchSize) {
+        if (CollectionUtils.isEmpty(scores)) {
+            return 0;
+        }
+        // 同一语句内重复的学生+课程会触发“ON CONFLICT不能二次影响同一行”错误，先去重（后者覆盖前者）
+        Map<Long, Score> distinct = new LinkedHashMap<>();
+        Set<Integer> courseIds = new HashSet<>();
+        Set<Integer> studentIds = new HashSet<>();
+        for (Score score : scores) {
+            distinct.put(pairKey(score.getStudentId(), score.getCourseId()), score);
+            courseIds.add(score.getCourseId());
+            studentIds.add(score.getStudentId());
+        }
+        List<Score> rows = new ArrayList<>(distinct.values());
+        int step = Math.max(1, Math.min(batchSize, MAX_UPSERT_BATCH));
+        int inserted = 0;
+        Map<Integer, CourseStatsDelta> deltas = new HashMap<>();
+        for (int from = 0; from < rows.size(); from += step) {
+            List<Score> chunk = rows.subList(from, Math.min(from + step, rows.size()));
+            List<ScoreUpsertResult> results = upsertLocked(chunk);
+            for (ScoreUpsertResult result : results) {
+                if (Boolean.TRUE.equals(result.getInserted())) {
+                    inserted++;
+                }
+            }
+            collectUpsertDeltas(deltas, chunk, results);
+        }
+        courseScoreStatsService.applyDeltas(deltas.values());
+        scoreDataVersion.bump(courseIds, studentIds);
+        return inserted;
     }
 
     /**
      * 删除成绩（单条，适配Integer类型id）
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean removeScoreById(Integer id) {
-        return this.removeById(id);
+        return !removeScoresReturning(List.of(id)).isEmpty();
     }
 
     /**
      * 批量删除成绩（适配Integer类型ids）
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean batchRemoveScores(List<Integer> ids) {
-        return this.removeByIds(ids);
+        if (CollectionUtils.isEmpty(ids)) {
+            return false;
+        }
+        return !removeScoresReturning(ids).isEmpty();
     }
 
     /**
@@ -129,11 +348,13 @@ public class ScoreServiceImpl extends ServiceImpl<ScoreMapper, Score> implements
     }
 
     /**
-     * 根据课程ID查询成绩列表（适配Integer类型courseId）
+     * 根据课程ID查询成绩列表（适配Integer类型courseId，按课程数据版本缓存，返回只读列表）
      */
     @Override
     public List<ScoreDTO> getScoreListByCourseId(Integer courseId) {
-        return scoreMapper.selectScoreListByCourseId(courseId);
+        return courseScoreCache.getScoreList(courseId, () -> narrowReads
+                ? nameDictionary.enrich(scoreMapper.selectScoreRowsByCourseId(courseId))
+                : scoreMapper.selectScoreListByCourseId(courseId));
     }
 
     /**
@@ -141,20 +362,47 @@ public class ScoreServiceImpl extends ServiceImpl<ScoreMapper, Score> implements
      */
     @Override
     public List<ScoreDTO> getScoreListByStudentId(Integer studentId) {
+        if (narrowReads) {
+            return nameDictionary.enrich(scoreMapper.selectScoreRowsByStudentId(studentId));
+        }
         return scoreMapper.selectScoreListByStudentId(studentId);
     }
 
+    // ========== 流式导出方法 ==========
+    /**
+     * 流式导出课程成绩（只读事务：PostgreSQL驱动仅在非自动提交模式下按fetchSize分批拉取）
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportScoresByCourseId(Integer courseId, OutputStream out) {
+        try (ExcelStreamWriter<ScoreExportDTO> writer = new ExcelStreamWriter<>(out, ScoreExportDTO.class, "课程成绩")) {
+            scoreMapper.selectScoreExportByCourseId(courseId, context -> writer.add(context.getResultObject()));
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * 流式导出教师全部课程成绩
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportScoresByTeacher(Long teacherId, OutputStream out) {
+        try (ExcelStreamWriter<ScoreExportDTO> writer = new ExcelStreamWriter<>(out, ScoreExportDTO.class, "全部课程成绩")) {
+            scoreMapper.selectScoreExportByTeacher(teacherId, context -> writer.add(context.getResultObject()));
+            return writer.getRowCount();
+        }
+    }
+
     // ========== 权限校验方法（适配Integer类型） ==========
     /**
-     * 校验教师是否有该课程的操作权限
+     * 校验教师是否有该课程的操作权限（内存课程归属索引，不访问数据库）
      */
     @Override
     public boolean checkTeacherCoursePermission(Long teacherId, Integer courseId) {
         if (teacherId == null || courseId == null) {
             return false;
         }
-        Course course = courseMapper.selectById(courseId);
-        return course != null && teacherId.equals(course.getTeacherId());
+        return courseOwnershipCache.isOwner(teacherId, courseId);
     }
 
     /**
@@ -165,137 +413,291 @@ public class ScoreServiceImpl extends ServiceImpl<ScoreMapper, Score> implements
         if (teacherId == null || scoreId == null) {
             return false;
         }
-        // 1. 查询成绩信息
-        Score score = this.getById(scoreId);
-        if (score == null) {
-            return false;
-        }
-        // 2. 查询成绩所属课程
-        Course course = courseMapper.selectById(score.getCourseId());
-        // 3. 校验课程所属教师是否匹配
-        return course != null && teacherId.equals(course.getTeacherId());
+        return findUnauthorizedScoreIds(teacherId, List.of(scoreId)).isEmpty();
     }
 
     /**
-     * 批量校验成绩权限
+     * 批量校验成绩权限（一次查询，不存在的ID视为无权限）
      */
     @Override
     public boolean checkBatchScorePermission(Long teacherId, List<Integer> scoreIds) {
         if (teacherId == null || CollectionUtils.isEmpty(scoreIds)) {
             return false;
         }
-        // 1. 批量查询成绩信息
-        List<Score> scoreList = this.listByIds(scoreIds);
-        if (CollectionUtils.isEmpty(scoreList)) {
-            return false;
+        return findUnauthorizedScoreIds(teacherId, scoreIds).isEmpty();
+    }
+
+    /**
+     * 查询教师无权操作的成绩ID（score LEFT JOIN course 一次完成）
+     */
+    @Override
+    public List<Integer> findUnauthorizedScoreIds(Long teacherId, Collection<Integer> scoreIds) {
+        if (CollectionUtils.isEmpty(scoreIds)) {
+            return new ArrayList<>();
         }
-        // 2. 逐个校验课程权限
-        for (Score score : scoreList) {
-            Course course = courseMapper.selectById(score.getCourseId());
-            if (course == null || !teacherId.equals(course.getTeacherId())) {
-                return false; // 只要有一个无权限，整体返回无权限
-            }
+        if (teacherId == null) {
+            return new ArrayList<>(new LinkedHashSet<>(scoreIds));
         }
-        return true;
+        return scoreMapper.selectUnauthorizedScoreIds(teacherId, scoreIds);
     }
 
     // ========== 新增成绩分段统计方法 ==========
     /**
-     * 查询课程成绩各分数段人数计数
+     * 查询课程成绩各分数段人数计数（由课程直方图按默认分段导出）
      */
     @Override
     public ScoreSegmentCountDTO getScoreSegmentCounts(Integer courseId) {
-        return scoreMapper.selectScoreSegmentCounts(courseId);
+        ScoreHistogram histogram = toHistogram(loadAggregate(courseId));
+        ScoreBuckets buckets = ScoreBuckets.DEFAULT;
+        ScoreSegmentCountDTO counts = new ScoreSegmentCountDTO();
+        counts.setCount0To60(histogram.countBetween(buckets.fromBin(0), buckets.toBin(0)));
+        counts.setCount60To80(histogram.countBetween(buckets.fromBin(1), buckets.toBin(1)));
+        counts.setCount80To100(histogram.countBetween(buckets.fromBin(2), buckets.toBin(2)));
+        return counts;
     }
 
     /**
-     * 查询课程成绩分段统计完整信息（含平均分、最高分、最低分、分数段分布等）
+     * 查询课程成绩分段统计完整信息（含平均分、最高分、最低分、分位数、标准差、分数段分布等）
      */
     @Override
-    public ScoreSegmentStats getScoreSegmentStats(Integer courseId) {
-        // 1. 获取课程下所有成绩数据
-        List<ScoreDTO> scores = getScoreListByCourseId(courseId);
-        // 2. 获取各分数段人数计数
-        ScoreSegmentCountDTO segmentCounts = getScoreSegmentCounts(courseId);
-
-        // 3. 处理各分数段人数（空值兜底）
-        long count0To60 = segmentCounts != null && segmentCounts.getCount0To60() != null ? segmentCounts.getCount0To60() : 0L;
-        long count60To80 = segmentCounts != null && segmentCounts.getCount60To80() != null ? segmentCounts.getCount60To80() : 0L;
-        long count80To100 = segmentCounts != null && segmentCounts.getCount80To100() != null ? segmentCounts.getCount80To100() : 0L;
-
-        boolean hasSegmentCounts = segmentCounts != null
-                && (segmentCounts.getCount0To60() != null
-                || segmentCounts.getCount60To80() != null
-                || segmentCounts.getCount80To100() != null);
-
-        long totalFromScores = scores == null ? 0L : scores.size();
-        if (!hasSegmentCounts || (totalFromScores > 0 && count0To60 + count60To80 + count80To100 == 0)) {
-            count0To60 = 0L;
-            count60To80 = 0L;
-            count80To100 = 0L;
-            if (scores != null) {
-                for (ScoreDTO scoreDTO : scores) {
-                    if (scoreDTO.getScore() == null) {
-                        continue;
-                    }
-                    BigDecimal score = scoreDTO.getScore();
-                    if (score.compareTo(BigDecimal.valueOf(60)) < 0) {
-                        count0To60++;
-                    } else if (score.compareTo(BigDecimal.valueOf(80)) < 0) {
-                        count60To80++;
-                    } else {
-                        count80To100++;
-                    }
+    public ScoreSegmentStats getScoreSegmentStats(Integer courseId, ScoreBuckets buckets) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // 读取课程统计（缓存未命中时按主键单行查询读模型），所有指标由直方图导出
+            ScoreAggregateDTO aggregate = loadAggregate(courseId);
+            long total = aggregate != null && aggregate.getTotal() != null ? aggregate.getTotal() : 0L;
+            return toSegmentStats(toHistogram(aggregate), total, buckets);
+        } finally {
+            sample.stop(Timer.builder("sgms.score.segment-stats")
+                    .description("课程成绩分段统计耗时（含缓存读取）")
+                    .tags(RequestMetricTags.current())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 批量查询多门课程的成绩分段统计
+     */
+    @Override
+    public Map<Integer, ScoreSegmentStats> getScoreSegmentStatsBatch(Collection<Integer> courseIds, ScoreBuckets buckets) {
+        Map<Integer, ScoreAggregateDTO> aggregates = courseScoreCache.getAggregates(courseIds, missed -> {
+            Map<Integer, ScoreAggregateDTO> loaded = new HashMap<>(courseScoreStatsService.getCourseStats(missed));
+            // 无成绩的课程也缓存空统计，避免每次重新查询
+            for (Integer courseId : missed) {
+                loaded.computeIfAbsent(courseId, ScoreServiceImpl::emptyAggregate);
+            }
+            return loaded;
+        });
+        Map<Integer, ScoreSegmentStats> result = new LinkedHashMap<>();
+        for (Integer courseId : courseIds) {
+            ScoreAggregateDTO aggregate = aggregates.get(courseId);
+            long total = aggregate != null && aggregate.getTotal() != null ? aggregate.getTotal() : 0L;
+            result.put(courseId, toSegmentStats(toHistogram(aggregate), total, buckets));
+        }
+        return result;
+    }
+
+    /**
+     * 群体成绩统计：数据库按十分位整数分组计数 → 逐桶累加到直方图（内存与成绩条数无关，全程无BigDecimal，仅在输出时转换）
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ScoreSegmentStats getCohortStats(Collection<Integer> courseIds, LocalDate examFrom, LocalDate examTo, ScoreBuckets buckets) {
+        ScoreHistogram histogram = new ScoreHistogram();
+        long[] nullCount = new long[1];
+        if (!CollectionUtils.isEmpty(courseIds)) {
+            scoreMapper.selectScoreTenths(courseIds, examFrom, examTo, context -> {
+                ScoreBinCountDTO row = context.getResultObject();
+                if (row.getBin() == null) {
+                    nullCount[0] += row.getCount();
+                } else if (row.getBin() < 0 || row.getBin() >= ScoreHistogram.BINS) {
+                    throw new IllegalArgumentException("分数超出范围：" + row.getBin() / 10.0);
+                } else {
+                    histogram.addBin(row.getBin(), row.getCount());
                 }
+            });
+        }
+        return toSegmentStats(histogram, histogram.getCount() + nullCount[0], buckets);
+    }
+
+    /**
+     * 查询教师无权访问的课程ID
+     */
+    @Override
+    public List<Integer> findUnauthorizedCourseIds(Long teacherId, Collection<Integer> courseIds) {
+        List<Integer> denied = new ArrayList<>();
+        for (Integer courseId : courseIds) {
+            if (!courseOwnershipCache.isOwner(teacherId, courseId)) {
+                denied.add(courseId);
             }
         }
+        return denied;
+    }
 
-        // 4. 计算总人数（优先用成绩列表总数，兜底用分数段求和）
-        long total = totalFromScores > 0 ? totalFromScores : count0To60 + count60To80 + count80To100;
+    /**
+     * 教师授课课程ID
+     */
+    @Override
+    public List<Integer> getTeacherCourseIds(Long teacherId) {
+        int[] courseIds = courseOwnershipCache.coursesOf(teacherId);
+        List<Integer> result = new ArrayList<>(courseIds.length);
+        for (int courseId : courseIds) {
+            result.add(courseId);
+        }
+        return result;
+    }
 
-        // 5. 计算平均分、最高分、最低分（高精度计算避免浮点误差）
-        BigDecimal avgScore = BigDecimal.ZERO;
-        BigDecimal maxScore = BigDecimal.ZERO;
-        BigDecimal minScore = null;
-        long validCount = 0;
+    /**
+     * 私有工具方法：读取课程统计（按课程数据版本缓存；课程无成绩时返回空统计）
+     */
+    private ScoreAggregateDTO loadAggregate(Integer courseId) {
+        return courseScoreCache.getAggregate(courseId, () -> {
+            ScoreAggregateDTO aggregate = courseScoreStatsService.getCourseStats(courseId);
+            return aggregate != null ? aggregate : emptyAggregate(courseId);
+        });
+    }
 
-        if (scores != null) {
-            BigDecimal sum = BigDecimal.ZERO;
-            for (ScoreDTO scoreDTO : scores) {
-                if (scoreDTO.getScore() == null) {
-                    continue;
-                }
-                BigDecimal score = scoreDTO.getScore();
-                sum = sum.add(score);
-                validCount++;
-                // 更新最高分
-                if (maxScore.compareTo(score) < 0) {
-                    maxScore = score;
-                }
-                // 更新最低分
-                if (minScore == null || minScore.compareTo(score) > 0) {
-                    minScore = score;
-                }
+    private static ScoreAggregateDTO emptyAggregate(Integer courseId) {
+        ScoreAggregateDTO aggregate = new ScoreAggregateDTO();
+        aggregate.setCourseId(courseId);
+        aggregate.setTotal(0L);
+        return aggregate;
+    }
+
+    /**
+     * 私有工具方法：统计行 → 直方图
+     */
+    private ScoreHistogram toHistogram(ScoreAggregateDTO aggregate) {
+        return ScoreHistogram.fromCounts(aggregate != null ? aggregate.getScoreHist() : null);
+    }
+
+    /**
+     * 私有工具方法：直方图 → 分段统计VO（平均分保留1位小数四舍五入；无成绩时平均/最高/最低分为0，分位数与标准差为空）
+     * @param histogram 成绩直方图
+     * @param total 成绩记录数（含分数为空的记录，占比分母）
+     * @param buckets 分段定义
+     */
+    private ScoreSegmentStats toSegmentStats(ScoreHistogram histogram, long total, ScoreBuckets buckets) {
+        ScoreSegmentStats stats = new ScoreSegmentStats();
+        stats.setTotal(total);
+        if (histogram.getCount() > 0) {
+            stats.setAvgScore(histogram.mean());
+            stats.setMaxScore(ScoreHistogram.toScore(histogram.maxBin()));
+            stats.setMinScore(ScoreHistogram.toScore(histogram.minBin()));
+        } else {
+            stats.setAvgScore(BigDecimal.ZERO);
+            stats.setMaxScore(BigDecimal.ZERO);
+            stats.setMinScore(BigDecimal.ZERO);
+        }
+        stats.setMedianScore(histogram.quantile(0.5));
+        stats.setP25Score(histogram.quantile(0.25));
+        stats.setP75Score(histogram.quantile(0.75));
+        stats.setP90Score(histogram.quantile(0.9));
+        stats.setStdDev(histogram.stdDev());
+
+        List<ScoreSegmentDistribution> distribution = new ArrayList<>(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            long count = histogram.countBetween(buckets.fromBin(i), buckets.toBin(i));
+            distribution.add(new ScoreSegmentDistribution(buckets.label(i), count, formatRate(count, total)));
+        }
+        stats.setDistribution(distribution);
+        return stats;
+    }
+
+    /**
+     * 私有工具方法：删除成绩并按被删除行递增课程/学生数据版本
+     */
+    private List<Score> removeScoresReturning(List<Integer> ids) {
+        List<Score> removed = scoreMapper.deleteScoresReturning(ids);
+        Map<Integer, CourseStatsDelta> deltas = new HashMap<>();
+        for (Score score : removed) {
+            statsDelta(deltas, score.getCourseId()).remove(score.getScore());
+            scoreDataVersion.bump(score.getCourseId(), score.getStudentId());
+        }
+        courseScoreStatsService.applyDeltas(deltas.values());
+        return removed;
+    }
+
+    /**
+     * 私有工具方法：取课程统计增量（按课程汇总）
+     */
+    private CourseStatsDelta statsDelta(Map<Integer, CourseStatsDelta> deltas, Integer courseId) {
+        return deltas.computeIfAbsent(courseId, CourseStatsDelta::new);
+    }
+
+    /**
+     * 私有工具方法：先加锁读取旧分数，再执行多值upsert，并将旧分数回填到逐行结果
+     * （两条语句在同一事务内，加锁后旧行不会被并发修改，覆盖前分数确定，不依赖执行计划）
+     */
+    private List<ScoreUpsertResult> upsertLocked(List<Score> rows) {
+        Map<Long, BigDecimal> oldScores = new HashMap<>(rows.size() * 2);
+        for (Score old : scoreMapper.selectScoresForUpdate(rows)) {
+            oldScores.put(pairKey(old.getStudentId(), old.getCourseId()), old.getScore());
+        }
+        List<ScoreUpsertResult> results = scoreMapper.upsertScores(rows);
+        for (ScoreUpsertResult result : results) {
+            Long key = pairKey(result.getStudentId(), result.getCourseId());
+            result.setOldFound(oldScores.containsKey(key));
+            result.setOldScore(oldScores.get(key));
+        }
+        return results;
+    }
+
+    /**
+     * 私有工具方法：upsert结果 → 课程统计增量（新增计入新分数；覆盖先扣除旧分数再计入新分数）
+     */
+    private void collectUpsertDeltas(Map<Integer, CourseStatsDelta> deltas, List<Score> rows, List<ScoreUpsertResult> results) {
+        Map<Long, BigDecimal> newScores = new HashMap<>(rows.size() * 2);
+        for (Score row : rows) {
+            newScores.put(pairKey(row.getStudentId(), row.getCourseId()), row.getScore());
+        }
+        for (ScoreUpsertResult result : results) {
+            CourseStatsDelta delta = statsDelta(deltas, result.getCourseId());
+            BigDecimal newScore = newScores.get(pairKey(result.getStudentId(), result.getCourseId()));
+            if (Boolean.TRUE.equals(result.getInserted())) {
+                delta.add(newScore);
+            } else if (Boolean.TRUE.equals(result.getOldFound())) {
+                delta.remove(result.getOldScore());
+                delta.add(newScore);
+            } else {
+                delta.setRecompute(true);
             }
-            // 计算平均分（保留1位小数，四舍五入）
-            if (validCount > 0) {
-                avgScore = sum.divide(BigDecimal.valueOf(validCount), 1, RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * 私有工具方法：总数计算策略（开启近似阈值时先读规划器估算行数，超过阈值直接返回估算值，否则精确COUNT）
+     */
+    private long estimateOrCount(Supplier<String> explain, LongSupplier exactCount) {
+        if (countEstimateThreshold > 0) {
+            long estimate = parsePlanRows(explain.get());
+            if (estimate >= countEstimateThreshold) {
+                logger.debug("使用规划器估算总数：{}", estimate);
+                return estimate;
             }
         }
+        return exactCount.getAsLong();
+    }
 
-        // 最低分空值兜底
-        if (minScore == null) {
-            minScore = BigDecimal.ZERO;
+    /**
+     * 私有工具方法：解析 EXPLAIN (FORMAT JSON) 的根节点估算行数（解析失败返回-1，回退精确计数）
+     */
+    private long parsePlanRows(String planJson) {
+        try {
+            JSONArray plans = JSON.parseArray(planJson);
+            return plans.getJSONObject(0).getJSONObject("Plan").getLongValue("Plan Rows");
+        } catch (RuntimeException e) {
+            logger.warn("解析执行计划失败：{}", e.getMessage());
+            return -1L;
         }
+    }
 
-        // 6. 构建分数段分布列表
-        List<ScoreSegmentDistribution> distribution = new ArrayList<>();
-        distribution.add(new ScoreSegmentDistribution("0-60", count0To60, formatRate(count0To60, total)));
-        distribution.add(new ScoreSegmentDistribution("60-80", count60To80, formatRate(count60To80, total)));
-        distribution.add(new ScoreSegmentDistribution("80-100", count80To100, formatRate(count80To100, total)));
+    private static long pairKey(Integer studentId, Integer courseId) {
+        return ((long) studentId << 32) | (courseId & 0xFFFFFFFFL);
+    }
 
-        // 7. 封装并返回完整统计结果
-        return new ScoreSegmentStats(avgScore, maxScore, minScore, total, distribution);
+    private String nullToEmpty(String value) {
+        return value == null ? "" : value;
     }
 
     /**
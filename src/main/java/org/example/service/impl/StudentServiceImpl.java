@@ -1,6 +1,10 @@
 package org.example.service.impl;
 
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.example.cache.StudentDirectoryIndex;
+import org.example.dto.StudentDirectoryDTO;
 import org.example.dto.StudentOptionDTO;
 import org.example.entity.Student;
 import org.example.mapper.StudentMapper;
@@ -18,6 +22,9 @@ public class StudentServiceImpl extends ServiceImpl<StudentMapper, Student> impl
     @Autowired
     private StudentMapper studentMapper;
 
+    @Autowired
+    private StudentDirectoryIndex studentDirectoryIndex;
+
     @Override
     public List<Student> getAllStudents() {
         return studentMapper.selectList(null);
@@ -45,4 +52,22 @@ public class StudentServiceImpl extends ServiceImpl<StudentMapper, Student> impl
     public List<StudentOptionDTO> getAllStudentOptions() {
         return studentMapper.selectAllOptions();
     }
-}
\ No newline at end of file
+
+    @Override
+    public IPage<StudentDirectoryDTO> getStudentDirectoryPage(Page<StudentDirectoryDTO> page, String keyword, String className) {
+        return studentMapper.selectDirectoryPage(page, trimToNull(keyword), trimToNull(className));
+    }
+
+    @Override
+    public List<StudentDirectoryDTO> searchStudents(String keyword, int limit) {
+        return studentDirectoryIndex.search(keyword, limit);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
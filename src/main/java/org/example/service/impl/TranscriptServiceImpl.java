@@ -0,0 +1,137 @@
+package org.example.service.impl;
+
+import org.example.cache.TranscriptCache;
+import org.example.dto.TranscriptRowDTO;
+import org.example.mapper.ScoreMapper;
+import org.example.service.TranscriptService;
+import org.example.utils.GpaAccumulator;
+import org.example.vo.StudentGpa;
+import org.example.vo.TermGpa;
+import org.example.vo.Transcript;
+import org.example.vo.TranscriptCourse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 成绩单与学分加权绩点服务实现
+ * 单个学生一次JOIN查询（学生、成绩、课程学分）后在内存中按学期归并；班级批量模式为一条流式查询，内存占用与单个学生的课程数相当
+ */
+@Service
+public class TranscriptServiceImpl implements TranscriptService {
+
+    private static final String UNKNOWN_TERM = "未知学期";
+
+    @Autowired
+    private ScoreMapper scoreMapper;
+
+    @Autowired
+    private TranscriptCache transcriptCache;
+
+    @Override
+    public Transcript getTranscript(Integer studentId) {
+        if (studentId == null) {
+            return null;
+        }
+        return transcriptCache.get(studentId, () -> buildTranscript(scoreMapper.selectTranscriptRows(studentId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentGpa> getClassGpa(String className) {
+        List<StudentGpa> result = new ArrayList<>();
+        // 行按学生ID连续输出：学生ID变化时结算上一名学生
+        TranscriptRowDTO[] current = new TranscriptRowDTO[1];
+        GpaAccumulator[] accumulator = new GpaAccumulator[1];
+        scoreMapper.selectClassTranscriptRows(className, context -> {
+            TranscriptRowDTO row = context.getResultObject();
+            if (current[0] == null || !current[0].getStudentId().equals(row.getStudentId())) {
+                if (current[0] != null) {
+                    result.add(toStudentGpa(current[0], accumulator[0], new StudentGpa()));
+                }
+                current[0] = row;
+                accumulator[0] = new GpaAccumulator();
+            }
+            accumulator[0].add(row.getCredit(), row.getScore());
+        });
+        if (current[0] != null) {
+            result.add(toStudentGpa(current[0], accumulator[0], new StudentGpa()));
+        }
+        result.sort(Comparator.comparing(StudentGpa::getGpa, Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()))
+                .thenComparing(StudentGpa::getStudentNo, Comparator.nullsLast(Comparator.<String>naturalOrder())));
+        return result;
+    }
+
+    @Override
+    public boolean checkTeacherClassPermission(Long teacherId, String className) {
+        return teacherId != null && className != null && scoreMapper.existsClassTaughtBy(teacherId, className);
+    }
+
+    /**
+     * 明细行 → 成绩单（总绩点、学期绩点、课程明细）
+     */
+    private Transcript buildTranscript(List<TranscriptRowDTO> rows) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        GpaAccumulator overall = new GpaAccumulator();
+        // 行已按考试日期升序，学期按首次出现顺序即为时间顺序（未知学期最后）
+        Map<String, GpaAccumulator> byTerm = new LinkedHashMap<>();
+        List<TranscriptCourse> courses = new ArrayList<>(rows.size());
+        for (TranscriptRowDTO row : rows) {
+            if (row.getCourseId() == null) {
+                continue;
+            }
+            String term = GpaAccumulator.termOf(row.getExamTime());
+            overall.add(row.getCredit(), row.getScore());
+            byTerm.computeIfAbsent(term != null ? term : UNKNOWN_TERM, k -> new GpaAccumulator())
+                    .add(row.getCredit(), row.getScore());
+
+            TranscriptCourse course = new TranscriptCourse();
+            course.setCourseId(row.getCourseId());
+            course.setCourseName(row.getCourseName());
+            course.setCredit(row.getCredit());
+            course.setScore(row.getScore());
+            course.setGradePoint(GpaAccumulator.gradePoint(row.getScore()));
+            course.setExamTime(row.getExamTime());
+            course.setTerm(term);
+            courses.add(course);
+        }
+
+        List<TermGpa> terms = new ArrayList<>(byTerm.size());
+        for (Map.Entry<String, GpaAccumulator> entry : byTerm.entrySet()) {
+            GpaAccumulator accumulator = entry.getValue();
+            TermGpa termGpa = new TermGpa();
+            termGpa.setTerm(entry.getKey());
+            termGpa.setGpa(accumulator.gpa());
+            termGpa.setAttemptedCredits(accumulator.getAttemptedCredits());
+            termGpa.setEarnedCredits(accumulator.getEarnedCredits());
+            termGpa.setCourseCount(accumulator.getCourseCount());
+            terms.add(termGpa);
+        }
+
+        Transcript transcript = toStudentGpa(rows.get(0), overall, new Transcript());
+        transcript.setTerms(terms);
+        transcript.setCourses(courses);
+        return transcript;
+    }
+
+    private static <T extends StudentGpa> T toStudentGpa(TranscriptRowDTO row, GpaAccumulator accumulator, T target) {
+        target.setStudentId(row.getStudentId());
+        target.setStudentNo(row.getStudentNo());
+        target.setStudentName(row.getStudentName());
+        target.setClassName(row.getClassName());
+        target.setGpa(accumulator.gpa());
+        target.setAttemptedCredits(accumulator.getAttemptedCredits());
+        target.setEarnedCredits(accumulator.getEarnedCredits());
+        target.setCourseCount(accumulator.getCourseCount());
+        return target;
+    }
+}
@@ -3,6 +3,7 @@ package org.example.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import org.example.entity.SysUser;
 import org.example.mapper.SysUserMapper;
+import org.example.utils.UserUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,12 +43,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         boolean credentialsNonExpired = true; // 凭证（密码）是否未过期
         boolean accountNonLocked = true; // 账号是否未锁定
 
-        // 角色标准化处理（去除ROLE_前缀，统一大写）
-        String rawRole = user.getRole();
-        String normalizedRole = rawRole == null ? "" : rawRole.toUpperCase();
-        if (normalizedRole.startsWith("ROLE_")) {
-            normalizedRole = normalizedRole.substring("ROLE_".length());
-        }
 
         // 封装用户信息（包含角色权限和状态）
         // 角色拼接ROLE_前缀，符合Spring Security的权限命名规范
@@ -58,7 +53,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 accountNonExpired,
                 credentialsNonExpired,
                 accountNonLocked,
-                AuthorityUtils.createAuthorityList("ROLE_" + normalizedRole) // 使用标准化后的角色
+                AuthorityUtils.createAuthorityList(UserUtils.roleAuthority(user.getRole())) // 使用标准化后的角色（去除ROLE_前缀后再拼接）
         );
     }
 }
\ No newline at end of file
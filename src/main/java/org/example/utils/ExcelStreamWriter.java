@@ -0,0 +1,66 @@
+package org.example.utils;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
+
+import java.io.Closeable;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Excel流式写出器：按固定批次把行写入EasyExcel（底层SXSSF仅在内存保留窗口行），
+ * 配合MyBatis ResultHandler逐行回调使用，导出任意行数时堆内存占用保持恒定
+ * @param <T> 行模型（带@ExcelProperty注解）
+ */
+public class ExcelStreamWriter<T> implements Closeable {
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final ExcelWriter excelWriter;
+    private final WriteSheet writeSheet;
+    private final int batchSize;
+    private List<T> buffer;
+    private long rowCount;
+
+    public ExcelStreamWriter(OutputStream out, Class<T> head, String sheetName) {
+        this(out, head, sheetName, DEFAULT_BATCH_SIZE);
+    }
+
+    public ExcelStreamWriter(OutputStream out, Class<T> head, String sheetName, int batchSize) {
+        this.excelWriter = EasyExcel.write(out, head).autoCloseStream(false).build();
+        this.writeSheet = EasyExcel.writerSheet(sheetName).build();
+        this.batchSize = batchSize;
+        this.buffer = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * 追加一行，缓冲满一批即写出
+     */
+    public void add(T row) {
+        buffer.add(row);
+        rowCount++;
+        if (buffer.size() >= batchSize) {
+            flushBuffer();
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    private void flushBuffer() {
+        excelWriter.write(buffer, writeSheet);
+        buffer = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * 写出剩余行并完成工作簿（空结果时也会写出表头）
+     */
+    @Override
+    public void close() {
+        flushBuffer();
+        excelWriter.finish();
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * 学分加权绩点累加器
+ * 五分制：及格（≥60）时绩点 = 分数/10 - 5（60分1.0，100分5.0），不及格为0；
+ * 加权绩点 = Σ(绩点×学分) / Σ学分，仅统计有分数且学分大于0的课程，及格课程计入已获学分
+ */
+public class GpaAccumulator {
+
+    private static final BigDecimal PASS_SCORE = BigDecimal.valueOf(60);
+    private static final BigDecimal GRADE_POINT_OFFSET = BigDecimal.valueOf(50);
+
+    private BigDecimal attemptedCredits = BigDecimal.ZERO;
+    private BigDecimal earnedCredits = BigDecimal.ZERO;
+    private BigDecimal qualityPoints = BigDecimal.ZERO;
+    private int courseCount;
+
+    /**
+     * 单门课程绩点
+     * @param score 分数（可为空）
+     * @return 绩点（保留2位小数）；分数为空时返回null
+     */
+    public static BigDecimal gradePoint(BigDecimal score) {
+        if (score == null) {
+            return null;
+        }
+        if (score.compareTo(PASS_SCORE) < 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return score.subtract(GRADE_POINT_OFFSET).movePointLeft(1).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 考试日期 → 学期（9月-次年1月为第一学期，2-8月为第二学期），如 2024-2025-1
+     * @param examTime 考试日期（可为空）
+     * @return 学期标识；日期为空时返回null
+     */
+    public static String termOf(LocalDate examTime) {
+        if (examTime == null) {
+            return null;
+        }
+        int month = examTime.getMonthValue();
+        int startYear = month >= 9 ? examTime.getYear() : examTime.getYear() - 1;
+        int semester = month >= 9 || month == 1 ? 1 : 2;
+        return startYear + "-" + (startYear + 1) + "-" + semester;
+    }
+
+    /**
+     * 累加一门课程（分数为空或学分不大于0的课程不参与计算）
+     * @param credit 课程学分
+     * @param score 分数
+     */
+    public void add(BigDecimal credit, BigDecimal score) {
+        if (score == null || credit == null || credit.signum() <= 0) {
+            return;
+        }
+        attemptedCredits = attemptedCredits.add(credit);
+        qualityPoints = qualityPoints.add(gradePoint(score).multiply(credit));
+        if (score.compareTo(PASS_SCORE) >= 0) {
+            earnedCredits = earnedCredits.add(credit);
+        }
+        courseCount++;
+    }
+
+    /**
+     * 加权平均绩点（保留2位小数，四舍五入）；无可计算课程时返回null
+     */
+    public BigDecimal gpa() {
+        if (attemptedCredits.signum() == 0) {
+            return null;
+        }
+        return qualityPoints.divide(attemptedCredits, 2, RoundingMode.HALF_UP);
+    }
+
+    /** 参与计算的总学分 */
+    public BigDecimal getAttemptedCredits() {
+        return attemptedCredits;
+    }
+
+    /** 已获学分（及格课程学分之和） */
+    public BigDecimal getEarnedCredits() {
+        return earnedCredits;
+    }
+
+    /** 参与计算的课程数 */
+    public int getCourseCount() {
+        return courseCount;
+    }
+}
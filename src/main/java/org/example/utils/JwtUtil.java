@@ -3,8 +3,14 @@ package org.example.utils;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.example.security.JwtClaims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -31,8 +37,31 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 默认24小时
     private long expiration; // 单位：毫秒
 
+    // 签名密钥与解析器在启动时创建一次，避免每次解析重复构建HMAC密钥
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // 指标注册表（非Spring环境如基准测试中为空，退化为全局注册表）
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    private Timer generateTimer;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = buildSigningKey();
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        if (meterRegistry == null) {
+            meterRegistry = Metrics.globalRegistry;
+        }
+        this.generateTimer = Timer.builder("sgms.jwt.generate")
+                .description("Token签发耗时")
+                .register(meterRegistry);
+    }
+
     // 生成签名密钥（核心：统一编码格式，避免密钥乱码导致签名不一致）
-    private SecretKey getSigningKey() {
+    private SecretKey buildSigningKey() {
         // 强制使用UTF-8编码，避免不同环境下getBytes()编码不一致
         byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
 
@@ -47,23 +76,81 @@ public class JwtUtil {
 
     // 生成Token（适配Spring Security的ROLE_前缀，确保权限匹配）
     public String generateToken(String username, String role) {
+        return generateToken(username, role, null);
+    }
+
+    // 生成Token（携带用户ID，供过滤器直接基于声明完成认证，无需每次查询sys_user）
+    public String generateToken(String username, String role, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         // 关键：角色必须拼接ROLE_前缀，否则hasRole()校验失败
         claims.put("role", "ROLE_" + role.toUpperCase()); // 统一大写，避免大小写问题
+        if (userId != null) {
+            claims.put("uid", userId);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             return Jwts.builder()
                     .claims(claims)          // 设置自定义Claims
                     .subject(username)       // 用户名作为subject
                     .issuedAt(new Date())    // 签发时间
                     .expiration(new Date(System.currentTimeMillis() + expiration)) // 过期时间
-                    .signWith(getSigningKey(), SignatureAlgorithm.HS256) // 签名算法+密钥
+                    .signWith(signingKey, SignatureAlgorithm.HS256) // 签名算法+密钥
                     .compact();
         } catch (Exception e) {
             logger.error("Token生成失败：{}", e.getMessage(), e);
             throw new RuntimeException("Token生成失败：" + e.getMessage(), e);
+        } finally {
+            sample.stop(generateTimer);
         }
     }
 
+    /**
+     * 验证Token并返回声明（签名+过期时间只校验一次，供过滤器在单次请求内复用）
+     * @param token Token字符串（兼容Bearer前缀）
+     * @return 已验签的声明
+     */
+    public JwtClaims verifyToken(String token) {
+        String cleanToken = token.startsWith("Bearer ") ? token.substring(7) : token;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Claims claims;
+        try {
+            claims = extractAllClaims(cleanToken);
+        } catch (RuntimeException e) {
+            sample.stop(verifyTimer(failureOutcome(e.getCause())));
+            throw e;
+        }
+        sample.stop(verifyTimer("success"));
+        Date exp = claims.getExpiration();
+        Number uid = claims.get("uid", Number.class);
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                uid != null ? uid.longValue() : null,
+                exp != null ? exp.toInstant() : null
+        );
+    }
+
+    // 验签计时器（按结果打标签：success/expired/bad_signature/malformed/error）
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("sgms.jwt.verify")
+                .description("Token验签与声明解析耗时")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String failureOutcome(Throwable cause) {
+        if (cause instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (cause instanceof SignatureException) {
+            return "bad_signature";
+        }
+        if (cause instanceof MalformedJwtException) {
+            return "malformed";
+        }
+        return "error";
+    }
+
     // 提取用户名（兼容Bearer前缀）
     public String extractUsername(String token) {
         // 移除Bearer前缀（如果有）
@@ -93,10 +180,8 @@ public class JwtUtil {
     // 提取所有Claims（核心：容错处理，解决"无效签名"）
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .setSigningKey(getSigningKey()) // 用统一的密钥解析
-                    .build()
-                    .parseSignedClaims(token) // 解析带签名的Token
+            return jwtParser
+                    .parseSignedClaims(token) // 解析带签名的Token（解析器已在启动时绑定密钥）
                     .getPayload();
         } catch (ExpiredJwtException e) {
             logger.error("Token已过期：{}", e.getMessage());
@@ -116,14 +201,12 @@ public class JwtUtil {
         }
     }
 
-    // 验证Token有效性（用户名+过期时间+签名）
+    // 验证Token有效性（用户名+过期时间+签名，只解析一次）
     public boolean validateToken(String token, String username) {
-        String cleanToken = token.startsWith("Bearer ") ? token.substring(7) : token;
         try {
-            final String extractedUsername = extractUsername(cleanToken);
-            final boolean isUsernameMatch = extractedUsername.equals(username);
-            final boolean isNotExpired = !isTokenExpired(cleanToken);
-            return isUsernameMatch && isNotExpired;
+            JwtClaims claims = verifyToken(token);
+            // 解析器已校验签名与过期时间，这里只需比对用户名
+            return claims.getUsername() != null && claims.getUsername().equals(username);
         } catch (Exception e) {
             logger.error("Token验证失败：{}", e.getMessage());
             return false;
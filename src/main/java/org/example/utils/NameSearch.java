@@ -0,0 +1,33 @@
+package org.example.utils;
+
+/**
+ * 名称子串搜索辅助（课程名、学生姓名的 LIKE '%关键字%' 筛选）
+ * 关键字中的 % _ \ 按字面匹配（PostgreSQL LIKE 默认以反斜杠转义）；
+ * 安装 pg_trgm 后由 GIN 三元组索引加速（见 V5__name_trigram_indexes.sql），未安装时同一SQL退化为扫描，结果一致；
+ * 少于3个字符的关键字提取不出三元组，同样退化为扫描
+ */
+public final class NameSearch {
+
+    private NameSearch() {
+    }
+
+    /**
+     * 子串匹配模式（供Mapper中 &lt;bind&gt; 调用）
+     * @param keyword 用户输入的关键字
+     * @return %转义后的关键字%
+     */
+    public static String containsPattern(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(keyword.length() + 8).append('%');
+        for (int i = 0; i < keyword.length(); i++) {
+            char ch = keyword.charAt(i);
+            if (ch == '%' || ch == '_' || ch == '\\') {
+                sb.append('\\');
+            }
+            sb.append(ch);
+        }
+        return sb.append('%').toString();
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.utils;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 请求级指标标签（endpoint、role）
+ * 由JwtAuthorizationFilter写入请求属性，Mapper语句、服务方法等下游计时器从当前请求读取，
+ * 保证同一请求内的各项指标可按接口和角色对齐；非请求线程（定时任务、启动预热）取值为none
+ */
+public final class RequestMetricTags {
+
+    public static final String ENDPOINT_ATTRIBUTE = RequestMetricTags.class.getName() + ".endpoint";
+    public static final String ROLE_ATTRIBUTE = RequestMetricTags.class.getName() + ".role";
+
+    public static final String NONE = "none";
+    public static final String ANONYMOUS = "anonymous";
+
+    private RequestMetricTags() {
+    }
+
+    /**
+     * 接口分组：路径前两段，纯数字段替换为{id}（控制标签基数，如 /teacher/score/list/12 → /teacher/score）
+     */
+    public static String endpointOf(String servletPath) {
+        if (servletPath == null || servletPath.isEmpty()) {
+            return "/";
+        }
+        StringBuilder sb = new StringBuilder();
+        int segments = 0;
+        for (String part : servletPath.split("/")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            sb.append('/').append(isNumeric(part) ? "{id}" : part);
+            if (++segments == 2) {
+                break;
+            }
+        }
+        return sb.length() == 0 ? "/" : sb.toString();
+    }
+
+    /**
+     * 角色标签：去掉ROLE_前缀并大写，空值视为匿名
+     */
+    public static String roleOf(String role) {
+        if (role == null || role.isEmpty()) {
+            return ANONYMOUS;
+        }
+        String normalized = role.toUpperCase();
+        return normalized.startsWith("ROLE_") ? normalized.substring("ROLE_".length()) : normalized;
+    }
+
+    /**
+     * 记录当前请求的接口分组与角色
+     */
+    public static void bind(HttpServletRequest request, String role) {
+        request.setAttribute(ENDPOINT_ATTRIBUTE, endpointOf(request.getServletPath()));
+        request.setAttribute(ROLE_ATTRIBUTE, roleOf(role));
+    }
+
+    /**
+     * 当前请求的endpoint、role标签（非请求线程为none）
+     */
+    public static Tags current() {
+        return Tags.of(Tag.of("endpoint", currentEndpoint()), Tag.of("role", currentRole()));
+    }
+
+    /**
+     * 当前请求的接口分组（非请求线程为none）
+     */
+    public static String currentEndpoint() {
+        return currentAttribute(ENDPOINT_ATTRIBUTE, NONE);
+    }
+
+    /**
+     * 当前请求的角色（非请求线程为none，未认证为anonymous）
+     */
+    public static String currentRole() {
+        return currentAttribute(ROLE_ATTRIBUTE, ANONYMOUS);
+    }
+
+    private static String currentAttribute(String name, String missing) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NONE;
+        }
+        Object value = attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        return value != null ? value.toString() : missing;
+    }
+
+    private static boolean isNumeric(String part) {
+        for (int i = 0; i < part.length(); i++) {
+            if (!Character.isDigit(part.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
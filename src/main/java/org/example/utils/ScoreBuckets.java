@@ -0,0 +1,95 @@
+package org.example.utils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 成绩分段定义（内部分界点，单位0.1分）
+ * 分段为左闭右开，最后一段包含100分；默认分界点60、80即 0-60 / 60-80 / 80-100
+ */
+public final class ScoreBuckets {
+
+    public static final ScoreBuckets DEFAULT = new ScoreBuckets(new int[]{600, 800});
+
+    private static final int MAX_BUCKETS = 100;
+    private static final int MAX_BIN = ScoreHistogram.BINS - 1;
+
+    private final int[] edges;
+
+    private ScoreBuckets(int[] edges) {
+        this.edges = edges;
+    }
+
+    /**
+     * 按分段宽度或显式分界点构建（两者都为空时使用默认分段，显式分界点优先）
+     * @param width 分段宽度（如10表示每10分一段）
+     * @param edges 内部分界点（如60,80）
+     * @throws IllegalArgumentException 参数非法
+     */
+    public static ScoreBuckets of(BigDecimal width, List<BigDecimal> edges) {
+        if (edges != null && !edges.isEmpty()) {
+            int[] bins = new int[edges.size()];
+            for (int i = 0; i < edges.size(); i++) {
+                bins[i] = toEdgeBin(edges.get(i));
+                if (i > 0 && bins[i] <= bins[i - 1]) {
+                    throw new IllegalArgumentException("分界点需严格递增");
+                }
+            }
+            checkSize(bins.length + 1);
+            return new ScoreBuckets(bins);
+        }
+        if (width != null) {
+            int step = toEdgeBin(width);
+            checkSize((MAX_BIN + step - 1) / step);
+            List<Integer> bins = new ArrayList<>();
+            for (int edge = step; edge < MAX_BIN; edge += step) {
+                bins.add(edge);
+            }
+            return new ScoreBuckets(bins.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return DEFAULT;
+    }
+
+    private static int toEdgeBin(BigDecimal value) {
+        if (value.stripTrailingZeros().scale() > 1) {
+            throw new IllegalArgumentException("分段精度最小为0.1分：" + value.toPlainString());
+        }
+        int bin = value.movePointRight(1).intValue();
+        if (bin <= 0 || bin >= MAX_BIN) {
+            throw new IllegalArgumentException("分界点/宽度需在0-100之间（不含端点）：" + value.toPlainString());
+        }
+        return bin;
+    }
+
+    private static void checkSize(int buckets) {
+        if (buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("分段数不能超过" + MAX_BUCKETS);
+        }
+    }
+
+    /** 分段数 */
+    public int size() {
+        return edges.length + 1;
+    }
+
+    /** 第i段起点桶（含） */
+    public int fromBin(int i) {
+        return i == 0 ? 0 : edges[i - 1];
+    }
+
+    /** 第i段终点桶（不含；最后一段包含100分） */
+    public int toBin(int i) {
+        return i == edges.length ? ScoreHistogram.BINS : edges[i];
+    }
+
+    /** 第i段名称（如"60-80"） */
+    public String label(int i) {
+        int to = i == edges.length ? MAX_BIN : edges[i];
+        return format(fromBin(i)) + "-" + format(to);
+    }
+
+    private static String format(int bin) {
+        return ScoreHistogram.toScore(bin).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 成绩游标分页的续读令牌（不透明字符串，内容为上一页最后一条记录的 course_id + id）
+ */
+public final class ScoreCursor {
+
+    private final Integer courseId;
+    private final Integer id;
+
+    private ScoreCursor(Integer courseId, Integer id) {
+        this.courseId = courseId;
+        this.id = id;
+    }
+
+    /**
+     * 首页游标（无起点）
+     */
+    public static ScoreCursor first() {
+        return new ScoreCursor(null, null);
+    }
+
+    /**
+     * 生成续读令牌
+     * @param courseId 最后一条记录的课程ID
+     * @param id 最后一条记录的成绩ID
+     * @return Base64URL编码的令牌
+     */
+    public static String encode(Integer courseId, Integer id) {
+        String raw = courseId + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析续读令牌（空字符串表示首页）
+     * @param token 前端回传的令牌
+     * @return 游标
+     * @throws IllegalArgumentException 令牌格式无效
+     */
+    public static ScoreCursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return first();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new ScoreCursor(Integer.valueOf(raw.substring(0, sep)), Integer.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException e) { // 含Base64解码失败与NumberFormatException
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
+    public Integer getCourseId() {
+        return courseId;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 成绩直方图（可合并的精确分位数草图）
+ * 分数为numeric(5,1)且取值0-100，按0.1分一个桶共1001个桶，桶即精确取值：
+ * 一次流式累加即可得到计数、均值、最值、标准差、任意分位数与任意分段人数，多门课程的直方图逐桶相加即可合并，无需回读原始成绩
+ */
+public class ScoreHistogram {
+
+    /** 桶数：0.0 ~ 100.0，每0.1分一个桶 */
+    public static final int BINS = 1001;
+
+    private final long[] counts;
+    private long count;
+
+    public ScoreHistogram() {
+        this.counts = new long[BINS];
+    }
+
+    /**
+     * 由逐桶计数构建（如course_score_stats.score_hist）
+     * @param binCounts 长度为BINS的计数数组，可为null
+     */
+    public static ScoreHistogram fromCounts(Integer[] binCounts) {
+        ScoreHistogram histogram = new ScoreHistogram();
+        if (binCounts != null) {
+            for (int i = 0; i < Math.min(binCounts.length, BINS); i++) {
+                long c = binCounts[i] != null ? binCounts[i] : 0;
+                histogram.counts[i] = c;
+                histogram.count += c;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * 分数 → 桶下标（十分位整数）
+     * @throws IllegalArgumentException 分数超出0-100
+     */
+    public static int toBin(BigDecimal score) {
+        int bin = score.movePointRight(1).setScale(0, RoundingMode.HALF_UP).intValueExact();
+        if (bin < 0 || bin >= BINS) {
+            throw new IllegalArgumentException("分数超出范围：" + score);
+        }
+        return bin;
+    }
+
+    public void add(BigDecimal score) {
+        if (score != null) {
+            addBin(toBin(score), 1);
+        }
+    }
+
+    public void addBin(int bin, long n) {
+        counts[bin] += n;
+        count += n;
+    }
+
+    /**
+     * 合并另一个直方图（逐桶相加）
+     */
+    public ScoreHistogram merge(ScoreHistogram other) {
+        for (int i = 0; i < BINS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        return this;
+    }
+
+    /** 有效分数个数 */
+    public long getCount() {
+        return count;
+    }
+
+    public long getBinCount(int bin) {
+        return counts[bin];
+    }
+
+    /** 总分（十分位整数） */
+    public long sumTenths() {
+        long sum = 0;
+        for (int i = 0; i < BINS; i++) {
+            sum += counts[i] * i;
+        }
+        return sum;
+    }
+
+    /** 最低分桶，无数据时返回-1 */
+    public int minBin() {
+        for (int i = 0; i < BINS; i++) {
+            if (counts[i] > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** 最高分桶，无数据时返回-1 */
+    public int maxBin() {
+        for (int i = BINS - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 区间人数 [fromBin, toBin)
+     */
+    public long countBetween(int fromBin, int toBin) {
+        long n = 0;
+        for (int i = Math.max(0, fromBin); i < Math.min(toBin, BINS); i++) {
+            n += counts[i];
+        }
+        return n;
+    }
+
+    /**
+     * 第rank个（从0起）有序分数所在的桶
+     */
+    private int binAtRank(long rank) {
+        long cumulative = 0;
+        for (int i = 0; i < BINS; i++) {
+            cumulative += counts[i];
+            if (cumulative > rank) {
+                return i;
+            }
+        }
+        return BINS - 1;
+    }
+
+    /**
+     * 分位数（与PostgreSQL percentile_cont一致：相邻有序值线性插值）
+     * @param q 分位点（0-1）
+     * @return 分位数（保留2位小数）；无数据时返回null
+     */
+    public BigDecimal quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        double position = q * (count - 1);
+        long lower = (long) Math.floor(position);
+        long upper = (long) Math.ceil(position);
+        int lowerBin = binAtRank(lower);
+        int upperBin = upper == lower ? lowerBin : binAtRank(upper);
+        double tenths = lowerBin + (position - lower) * (upperBin - lowerBin);
+        return BigDecimal.valueOf(tenths).movePointLeft(1).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 平均分（保留1位小数，四舍五入）；无数据时返回null
+     */
+    public BigDecimal mean() {
+        if (count == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(sumTenths()).movePointLeft(1)
+                .divide(BigDecimal.valueOf(count), 1, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 总体标准差（保留2位小数）；无数据时返回null
+     */
+    public BigDecimal stdDev() {
+        if (count == 0) {
+            return null;
+        }
+        double mean = (double) sumTenths() / count;
+        double squares = 0;
+        for (int i = 0; i < BINS; i++) {
+            if (counts[i] > 0) {
+                double diff = i - mean;
+                squares += counts[i] * diff * diff;
+            }
+        }
+        return BigDecimal.valueOf(Math.sqrt(squares / count)).movePointLeft(1).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 桶下标 → 分数
+     */
+    public static BigDecimal toScore(int bin) {
+        return BigDecimal.valueOf(bin, 1);
+    }
+}
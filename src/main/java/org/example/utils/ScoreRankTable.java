@@ -0,0 +1,133 @@
+package org.example.utils;
+
+import org.example.dto.ScoreRankEntryDTO;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 课程排名表（不可变）
+ * 分数按十分位整数升序存放（课程整体一份、每个班级一份），学生ID升序数组与分数、班级平行存放：
+ * 查学生分数与名次均为二分查找，O(log n)；名次语义与SQL RANK()一致（名次 = 严格高于该分数的人数 + 1）
+ */
+public class ScoreRankTable {
+
+    private final int[] studentIds;             // 学生ID升序
+    private final int[] studentTenths;          // 与studentIds平行：分数×10
+    private final String[] studentClasses;      // 与studentIds平行：班级
+    private final int[] sortedTenths;           // 课程内分数升序
+    private final Map<String, int[]> classSortedTenths;
+
+    private ScoreRankTable(int[] studentIds, int[] studentTenths, String[] studentClasses,
+                           int[] sortedTenths, Map<String, int[]> classSortedTenths) {
+        this.studentIds = studentIds;
+        this.studentTenths = studentTenths;
+        this.studentClasses = studentClasses;
+        this.sortedTenths = sortedTenths;
+        this.classSortedTenths = classSortedTenths;
+    }
+
+    /**
+     * 由排名构建行生成排名表
+     * @param entries 按学生ID升序、分数非空的行
+     */
+    public static ScoreRankTable of(List<ScoreRankEntryDTO> entries) {
+        int n = entries.size();
+        int[] ids = new int[n];
+        int[] tenths = new int[n];
+        String[] classes = new String[n];
+        Map<String, Integer> classSizes = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ScoreRankEntryDTO entry = entries.get(i);
+            ids[i] = entry.getStudentId();
+            tenths[i] = entry.getScoreTenths();
+            classes[i] = entry.getClassName();
+            if (i > 0 && ids[i] <= ids[i - 1]) {
+                throw new IllegalArgumentException("排名表构建行须按学生ID严格升序");
+            }
+            if (classes[i] != null) {
+                classSizes.merge(classes[i], 1, Integer::sum);
+            }
+        }
+
+        Map<String, int[]> byClass = new HashMap<>(classSizes.size() * 2);
+        Map<String, Integer> filled = new HashMap<>(classSizes.size() * 2);
+        for (int i = 0; i < n; i++) {
+            if (classes[i] == null) {
+                continue;
+            }
+            int[] values = byClass.computeIfAbsent(classes[i], k -> new int[classSizes.get(k)]);
+            values[filled.merge(classes[i], 1, Integer::sum) - 1] = tenths[i];
+        }
+        byClass.values().forEach(Arrays::sort);
+
+        int[] sorted = tenths.clone();
+        Arrays.sort(sorted);
+        return new ScoreRankTable(ids, tenths, classes, sorted, byClass);
+    }
+
+    /** 课程内有成绩人数 */
+    public int size() {
+        return sortedTenths.length;
+    }
+
+    /**
+     * 学生在表中的位置
+     * @return 位置；学生无成绩时返回负数
+     */
+    public int indexOf(int studentId) {
+        return Arrays.binarySearch(studentIds, studentId);
+    }
+
+    public int scoreTenthsAt(int index) {
+        return studentTenths[index];
+    }
+
+    public String classNameAt(int index) {
+        return studentClasses[index];
+    }
+
+    /** 课程内名次 */
+    public int rank(int tenths) {
+        return rankIn(sortedTenths, tenths);
+    }
+
+    /** 班级内有成绩人数 */
+    public int classSize(String className) {
+        int[] values = className != null ? classSortedTenths.get(className) : null;
+        return values != null ? values.length : 0;
+    }
+
+    /**
+     * 班级内名次
+     * @return 名次；班级为空或不在表中时返回0
+     */
+    public int classRank(String className, int tenths) {
+        int[] values = className != null ? classSortedTenths.get(className) : null;
+        return values != null ? rankIn(values, tenths) : 0;
+    }
+
+    /**
+     * 百分位名次（与PERCENT_RANK()一致：(名次-1)/(人数-1)，仅1人时为0）
+     */
+    public static double percentRank(int rank, int size) {
+        return size > 1 ? (double) (rank - 1) / (size - 1) : 0.0;
+    }
+
+    // 名次 = 严格高于tenths的人数 + 1（升序数组中第一个大于tenths的位置之后均更高）
+    private static int rankIn(int[] ascending, int tenths) {
+        int low = 0;
+        int high = ascending.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ascending[mid] <= tenths) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return ascending.length - low + 1;
+    }
+}
@@ -3,7 +3,30 @@ package org.example.utils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Locale;
+
 public class UserUtils {
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * 角色标准化（去除首尾空白、统一大写、去除ROLE_前缀），如 " role_teacher " → TEACHER
+     * 登录签发Token、加载UserDetails与状态快照比对角色均使用该方法，保证库中带/不带前缀的角色口径一致
+     * @param rawRole sys_user.role原始值
+     * @return 标准化角色；为空时返回空字符串
+     */
+    public static String normalizeRole(String rawRole) {
+        String role = rawRole == null ? "" : rawRole.trim().toUpperCase(Locale.ROOT);
+        return role.startsWith(ROLE_PREFIX) ? role.substring(ROLE_PREFIX.length()) : role;
+    }
+
+    /**
+     * 角色 → Spring Security权限名（ROLE_前缀 + 标准化角色），与Token中的role声明一致
+     * @param rawRole sys_user.role原始值
+     */
+    public static String roleAuthority(String rawRole) {
+        return ROLE_PREFIX + normalizeRole(rawRole);
+    }
+
     // 获取当前登录用户的 username（从 Security 上下文获取，JWT 认证后会自动存入）
     public static String getCurrentUsername() {
         // 从 Security 上下文获取认证信息
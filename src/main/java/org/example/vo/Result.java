@@ -40,4 +40,9 @@ public class Result<T> {
     public static <T> Result<T> forbidden() {
         return new Result<>(403, "权限不足", null);
     }
+
+    // 无权限响应（带消息）
+    public static <T> Result<T> forbidden(String msg) {
+        return new Result<>(403, msg, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package org.example.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreImportError {
+    private Integer rowNum;     // Excel行号（从1开始，含表头）
+    private String studentNo;   // 该行学号
+    private String message;     // 错误原因
+}
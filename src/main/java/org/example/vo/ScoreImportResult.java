@@ -0,0 +1,21 @@
+package org.example.vo;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 成绩批量导入结果（成功行已写入，失败行逐行给出原因）
+ */
+@Data
+public class ScoreImportResult {
+    private Integer totalRows = 0;                            // 读取的数据行数
+    private Integer insertedCount = 0;                        // 新增成绩数
+    private Integer updatedCount = 0;                         // 覆盖更新的成绩数
+    private List<ScoreImportError> errors = new ArrayList<>(); // 失败行明细
+
+    public void addError(Integer rowNum, String studentNo, String message) {
+        errors.add(new ScoreImportError(rowNum, studentNo, message));
+    }
+}
@@ -15,5 +15,10 @@ public class ScoreSegmentStats {
     private BigDecimal maxScore;                // 课程最高分
     private BigDecimal minScore;                // 课程最低分
     private Long total;                         // 参与统计的总人数
+    private BigDecimal medianScore;             // 中位数（保留2位小数，无成绩时为空）
+    private BigDecimal p25Score;                // 25分位数
+    private BigDecimal p75Score;                // 75分位数
+    private BigDecimal p90Score;                // 90分位数
+    private BigDecimal stdDev;                  // 总体标准差（保留2位小数）
     private List<ScoreSegmentDistribution> distribution; // 各分数段分布详情
 }
\ No newline at end of file
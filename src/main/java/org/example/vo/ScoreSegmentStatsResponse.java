@@ -17,6 +17,11 @@ public class ScoreSegmentStatsResponse {
     private BigDecimal maxScore;
     private BigDecimal minScore;
     private Long total;
+    private BigDecimal medianScore;
+    private BigDecimal p25Score;
+    private BigDecimal p75Score;
+    private BigDecimal p90Score;
+    private BigDecimal stdDev;
     private List<ScoreSegmentDistribution> distribution;
 
     public static ScoreSegmentStatsResponse success(ScoreSegmentStats stats) {
@@ -29,6 +34,11 @@ public class ScoreSegmentStatsResponse {
             response.maxScore = stats.getMaxScore();
             response.minScore = stats.getMinScore();
             response.total = stats.getTotal();
+            response.medianScore = stats.getMedianScore();
+            response.p25Score = stats.getP25Score();
+            response.p75Score = stats.getP75Score();
+            response.p90Score = stats.getP90Score();
+            response.stdDev = stats.getStdDev();
             response.distribution = stats.getDistribution();
         }
         return response;
@@ -0,0 +1,20 @@
+package org.example.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class SlowStatement {
+    private String statementId;             // Mapper语句ID（如 ScoreMapper.selectScoreRowsByCourseId）
+    private String commandType;             // SELECT / INSERT / UPDATE / DELETE
+    private Double elapsedMs;               // 执行耗时（毫秒）
+    private Long rows;                      // 返回/影响行数（流式查询为-1）
+    private String sql;                     // 实际执行的SQL（已含分页改写，空白已压缩）
+    private List<String> parameters;        // 绑定参数（按占位符顺序；密码、手机号、姓名等敏感参数脱敏，过长值截断）
+    private String endpoint;                // 所属接口分组
+    private String role;                    // 请求角色
+    private LocalDateTime occurredAt;       // 发生时间
+    private volatile String plan;           // 抽样捕获的 EXPLAIN (ANALYZE, BUFFERS) 执行计划（异步填充，未抽中为空）
+}
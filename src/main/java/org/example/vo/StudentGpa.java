@@ -0,0 +1,17 @@
+package org.example.vo;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class StudentGpa {
+    private Integer studentId;              // 学生ID
+    private String studentNo;               // 学号
+    private String studentName;             // 学生姓名
+    private String className;               // 班级
+    private BigDecimal gpa;                 // 加权绩点（保留2位小数，无可计算课程时为空）
+    private BigDecimal attemptedCredits;    // 参与计算的学分
+    private BigDecimal earnedCredits;       // 已获学分
+    private Integer courseCount;            // 参与计算的课程数
+}
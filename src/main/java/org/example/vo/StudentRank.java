@@ -0,0 +1,19 @@
+package org.example.vo;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class StudentRank {
+    private Integer courseId;               // 课程ID
+    private Integer studentId;              // 学生ID
+    private BigDecimal score;               // 分数
+    private Integer courseRank;             // 课程内名次（分数降序，并列同名次）
+    private Integer courseTotal;            // 课程内有成绩人数
+    private BigDecimal coursePercentRank;   // 课程内百分位名次（0为第一名，1为最后一名，保留4位小数）
+    private String className;               // 班级
+    private Integer classRank;              // 班级内名次
+    private Integer classTotal;             // 班级内有成绩人数
+    private BigDecimal classPercentRank;    // 班级内百分位名次
+}
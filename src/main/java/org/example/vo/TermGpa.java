@@ -0,0 +1,14 @@
+package org.example.vo;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class TermGpa {
+    private String term;                    // 学期（如 2024-2025-1，考试日期为空的课程归入“未知学期”）
+    private BigDecimal gpa;                 // 学期加权绩点（保留2位小数）
+    private BigDecimal attemptedCredits;    // 参与计算的学分
+    private BigDecimal earnedCredits;       // 已获学分
+    private Integer courseCount;            // 参与计算的课程数
+}
@@ -0,0 +1,16 @@
+package org.example.vo;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+/**
+ * 学生成绩单：总加权绩点、学期绩点与课程明细
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class Transcript extends StudentGpa {
+    private List<TermGpa> terms;                // 按学期汇总（按学期升序）
+    private List<TranscriptCourse> courses;     // 课程明细（按考试日期升序）
+}
@@ -0,0 +1,17 @@
+package org.example.vo;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class TranscriptCourse {
+    private Integer courseId;           // 课程ID
+    private String courseName;          // 课程名称
+    private BigDecimal credit;          // 学分
+    private BigDecimal score;           // 分数
+    private BigDecimal gradePoint;      // 绩点（五分制，不及格为0）
+    private LocalDate examTime;         // 考试日期
+    private String term;                // 学期（如 2024-2025-1）
+}
@@ -0,0 +1,55 @@
+-- 基线表结构：与实体类（org.example.entity）及Mapper中的列一一对应
+-- 已有数据库首次接入时（spring.flyway.baseline-on-migrate）同样执行本脚本，均使用IF NOT EXISTS，不影响已存在的表与数据
+
+CREATE TABLE IF NOT EXISTS sys_user (
+    id           serial       PRIMARY KEY,
+    username     varchar(50)  NOT NULL,
+    password     varchar(100) NOT NULL,                 -- BCrypt密文
+    role         varchar(20)  NOT NULL,                 -- ADMIN / TEACHER / STUDENT
+    real_name    varchar(50),
+    status       integer      NOT NULL DEFAULT 1,       -- 0-禁用，1-启用
+    create_time  timestamp    NOT NULL DEFAULT LOCALTIMESTAMP,
+    update_time  timestamp    NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS teacher (
+    id          serial      PRIMARY KEY,
+    user_id     integer     NOT NULL REFERENCES sys_user (id),
+    teacher_no  varchar(30),
+    title       varchar(30),
+    department  varchar(100),
+    phone       varchar(20)
+);
+
+CREATE TABLE IF NOT EXISTS student (
+    id          serial      PRIMARY KEY,
+    user_id     integer     NOT NULL REFERENCES sys_user (id),
+    student_no  varchar(30) NOT NULL,
+    class_name  varchar(50),
+    gender      varchar(10),
+    phone       varchar(20)
+);
+
+CREATE TABLE IF NOT EXISTS course (
+    id           serial        PRIMARY KEY,
+    course_code  varchar(30),
+    course_name  varchar(100)  NOT NULL,
+    teacher_id   integer       REFERENCES teacher (id),
+    credit       numeric(4,1)
+);
+
+-- 选课关系（主键即 student_id → 课程 方向的索引）
+CREATE TABLE IF NOT EXISTS student_course (
+    student_id  integer NOT NULL REFERENCES student (id),
+    course_id   integer NOT NULL REFERENCES course (id),
+    PRIMARY KEY (student_id, course_id)
+);
+
+CREATE TABLE IF NOT EXISTS score (
+    id           serial       PRIMARY KEY,
+    student_id   integer      NOT NULL REFERENCES student (id),
+    course_id    integer      NOT NULL REFERENCES course (id),
+    score        numeric(5,1) CHECK (score BETWEEN 0 AND 100),
+    exam_time    date,
+    create_time  timestamp    NOT NULL DEFAULT LOCALTIMESTAMP
+);
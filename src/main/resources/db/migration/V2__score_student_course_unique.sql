@@ -0,0 +1,32 @@
+-- 成绩表“学生+课程”唯一约束（ScoreMapper 中 INSERT ... ON CONFLICT (student_id, course_id) 依赖该约束）
+-- 建约束前处理历史重复数据：同一学生+课程保留id最大的一条，其余整行移入隔离表 score_duplicate_quarantine（不直接删除），
+-- 由管理员核对后决定恢复（改写score表中保留行的分数）或清理；隔离表保留原id，可按 (student_id, course_id) 对照
+
+CREATE TABLE IF NOT EXISTS score_duplicate_quarantine (
+    LIKE score,
+    quarantined_at TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+WITH moved AS (
+    DELETE FROM score s
+    USING score d
+    WHERE s.student_id = d.student_id
+      AND s.course_id = d.course_id
+      AND s.id < d.id
+    RETURNING s.*
+)
+INSERT INTO score_duplicate_quarantine
+SELECT moved.*, LOCALTIMESTAMP
+FROM moved;
+
+DO $$
+DECLARE
+    moved_count BIGINT;
+BEGIN
+    SELECT count(*) INTO moved_count FROM score_duplicate_quarantine;
+    IF moved_count > 0 THEN
+        RAISE WARNING '成绩表存在 % 条重复的学生+课程成绩，已移入 score_duplicate_quarantine，请核对', moved_count;
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_score_student_course ON score (student_id, course_id);
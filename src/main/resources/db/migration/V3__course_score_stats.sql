@@ -0,0 +1,10 @@
+-- 课程成绩统计读模型：每门课程一行，随成绩写入在同一事务内增量维护（见 CourseScoreStatsService）
+-- score_hist 为 0.0~100.0 每0.1分一个桶的计数（共1001个，下标从1开始），均值、最值、分位数、任意分段均由其导出
+-- 首次部署或数据漂移时可调用 POST /api/admin/stats/course-score/rebuild 全量重建
+
+CREATE TABLE IF NOT EXISTS course_score_stats (
+    course_id    integer   PRIMARY KEY,
+    total        bigint    NOT NULL DEFAULT 0,                            -- 成绩记录数（含分数为空的记录）
+    score_hist   integer[] NOT NULL DEFAULT array_fill(0, ARRAY[1001]),  -- 逐0.1分计数
+    update_time  timestamp NOT NULL DEFAULT LOCALTIMESTAMP
+);
@@ -0,0 +1,30 @@
+-- 热点查询索引（对应 ScoreMapper.xml / StudentMapper / CourseMapper / TeacherMapper / SysUserMapper 的筛选条件）
+-- 覆盖索引以 INCLUDE 附带窄查询所需列（narrowColumns: id, student_id, course_id, score, exam_time），分页与计数可走 Index Only Scan
+
+-- 按课程：selectScoreRowsByCourseId、教师分页/游标（course_id IN ... ORDER BY course_id, id）、计数、统计内核与排名
+CREATE INDEX IF NOT EXISTS idx_score_course_id ON score (course_id, id) INCLUDE (student_id, score, exam_time);
+
+-- 按学生：唯一约束 (student_id, course_id) 改为附带其余列的覆盖唯一索引（ON CONFLICT 仅按键列推断，INCLUDE 列不影响）
+-- 学生分页 ORDER BY course_id, id 在同一学生内与键序一致，无需额外排序
+CREATE UNIQUE INDEX IF NOT EXISTS uk_score_student_course_cover ON score (student_id, course_id) INCLUDE (id, score, exam_time);
+ALTER TABLE score DROP CONSTRAINT IF EXISTS uk_score_student_course;
+DROP INDEX IF EXISTS uk_score_student_course;
+ALTER INDEX uk_score_student_course_cover RENAME TO uk_score_student_course;
+
+-- 选课关系反向查询（selectByCourseId / selectOptionsByCourseId）
+CREATE INDEX IF NOT EXISTS idx_student_course_course ON student_course (course_id, student_id);
+
+-- 教师课程（teacher_id 筛选、narrowTeacherFilter 半连接）
+CREATE INDEX IF NOT EXISTS idx_course_teacher ON course (teacher_id, id);
+
+-- 用户关联与登录
+CREATE UNIQUE INDEX IF NOT EXISTS uk_teacher_user ON teacher (user_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_student_user ON student (user_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_sys_user_username ON sys_user (username);
+
+-- 学号唯一，text_pattern_ops 支持学生名录的前缀 LIKE（与数据库排序规则无关）
+CREATE UNIQUE INDEX IF NOT EXISTS uk_student_no ON student (student_no);
+CREATE INDEX IF NOT EXISTS idx_student_no_prefix ON student (student_no text_pattern_ops);
+
+-- 班级筛选（班级成绩单、班级绩点、名录按班级分页）
+CREATE INDEX IF NOT EXISTS idx_student_class ON student (class_name, id);
@@ -0,0 +1,25 @@
+-- 名称子串搜索（LIKE '%关键字%'）的 pg_trgm GIN 索引：sys_user.real_name（学生姓名筛选）、course.course_name（课程名筛选）
+-- 无权限或未安装 contrib 的环境中跳过扩展与索引，迁移照常完成，查询语义不变（退化为扫描）
+
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION WHEN OTHERS THEN
+    RAISE NOTICE 'pg_trgm 不可用，跳过名称三元组索引：%', SQLERRM;
+END
+$$;
+
+-- 扩展可能安装在其他schema（如public），操作符类按扩展所在schema限定
+DO $$
+DECLARE
+    trgm_schema text;
+BEGIN
+    SELECT n.nspname INTO trgm_schema
+    FROM pg_extension e JOIN pg_namespace n ON n.oid = e.extnamespace
+    WHERE e.extname = 'pg_trgm';
+    IF trgm_schema IS NOT NULL THEN
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_sys_user_real_name_trgm ON sys_user USING gin (real_name %I.gin_trgm_ops)', trgm_schema);
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_course_name_trgm ON course USING gin (course_name %I.gin_trgm_ops)', trgm_schema);
+    END IF;
+END
+$$;
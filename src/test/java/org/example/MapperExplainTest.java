@@ -0,0 +1,314 @@
+package org.example;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.example.dto.ScoreRankEntryDTO;
+import org.example.mapper.CourseMapper;
+import org.example.mapper.CourseScoreStatsMapper;
+import org.example.mapper.ScoreMapper;
+import org.example.mapper.StudentMapper;
+import org.example.mapper.SysUserMapper;
+import org.example.mapper.TeacherMapper;
+import org.example.utils.ScoreRankTable;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 迁移脚本 + 热点Mapper语句执行计划校验（需要本地PostgreSQL，连接不上时跳过）
+ * 在临时schema中执行db/migration全部版本，写入大规模数据（5万学生、50万成绩）并ANALYZE，
+ * 再对各Mapper语句执行EXPLAIN：大表上出现带筛选条件的顺序扫描，或对score表做任何顺序扫描，即视为缺少索引
+ * 连接参数：-Dsgms.test.db.url / .username / .password（或环境变量SGMS_TEST_DB_URL等），默认与application.yml一致
+ */
+class MapperExplainTest {
+
+    private static final String SCHEMA = "sgms_explain_test";
+    // 大表：不允许为筛选条件做顺序扫描（无筛选的顺序扫描仅出现在哈希连接的整表一侧）
+    private static final Set<String> LARGE_TABLES = Set.of("score", "student", "sys_user", "student_course");
+
+    private static Connection connection;
+    private static MybatisConfiguration configuration;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        String url = setting("url", "jdbc:postgresql://localhost:5432/SGMS?connectTimeout=3");
+        String username = setting("username", "postgres");
+        String password = setting("password", "123456");
+        try {
+            DriverManager.setLoginTimeout(3);
+            connection = DriverManager.getConnection(url, username, password);
+        } catch (SQLException e) {
+            Assumptions.assumeTrue(false, "本地PostgreSQL不可用，跳过执行计划校验：" + e.getMessage());
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA);
+            loadFixtures(statement);
+        }
+
+        configuration = new MybatisConfiguration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.addMapper(ScoreMapper.class);
+        configuration.addMapper(StudentMapper.class);
+        configuration.addMapper(CourseMapper.class);
+        configuration.addMapper(TeacherMapper.class);
+        configuration.addMapper(SysUserMapper.class);
+        configuration.addMapper(CourseScoreStatsMapper.class);
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    // 200名教师、2000门课程、5万名学生（500个班），每名学生10门课程的选课与成绩
+    private static void loadFixtures(Statement statement) throws SQLException {
+        statement.execute("INSERT INTO sys_user (id, username, password, role, real_name) " +
+                "SELECT i, 'user' || i, 'x', CASE WHEN i <= 200 THEN 'TEACHER' ELSE 'STUDENT' END, 'name' || i " +
+                "FROM generate_series(1, 50200) AS i");
+        statement.execute("INSERT INTO teacher (id, user_id, teacher_no) " +
+                "SELECT i, i, 'T' || lpad(i::text, 5, '0') FROM generate_series(1, 200) AS i");
+        statement.execute("INSERT INTO student (id, user_id, student_no, class_name) " +
+                "SELECT i, 200 + i, 'S' || lpad(i::text, 8, '0'), '班级' || (i % 500) FROM generate_series(1, 50000) AS i");
+        statement.execute("INSERT INTO course (id, course_code, course_name, teacher_id, credit) " +
+                "SELECT i, 'C' || i, 'course' || i, 1 + i % 200, 2 + i % 3 FROM generate_series(1, 2000) AS i");
+        statement.execute("INSERT INTO student_course (student_id, course_id) " +
+                "SELECT s, 1 + (s * 7 + k * 197) % 2000 FROM generate_series(1, 50000) AS s, generate_series(0, 9) AS k");
+        statement.execute("INSERT INTO score (student_id, course_id, score, exam_time) " +
+                "SELECT student_id, course_id, ((student_id * 31 + course_id) % 1001) / 10.0, DATE '2025-01-10' " +
+                "FROM student_course");
+        statement.execute("ANALYZE");
+    }
+
+    @Test
+    void hotStatementsUseIndexes() throws SQLException {
+        Map<String, Map<String, Object>> statements = new LinkedHashMap<>();
+        // 成绩：按课程 / 按学生 / 教师视图（窄查询、分页、游标、计数）
+        statements.put("ScoreMapper.selectScoreRowsByCourseId", params("courseId", 42));
+        statements.put("ScoreMapper.selectScoreRowsByStudentId", params("studentId", 4242));
+        statements.put("ScoreMapper.selectScoreRowsByStudentIdPage", params("studentId", 4242, "courseName", "course1"));
+        statements.put("ScoreMapper.selectScoreRowsByTeacherPage", params("teacherId", 7L));
+        statements.put("ScoreMapper.selectScoreRowsByStudentIdAfter",
+                params("studentId", 4242, "afterCourseId", 100, "afterId", 1, "limit", 20));
+        statements.put("ScoreMapper.selectScoreRowsByTeacherAfter",
+                params("teacherId", 7L, "afterCourseId", 100, "afterId", 1, "limit", 20));
+        statements.put("ScoreMapper.selectScoreListByCourseId", params("courseId", 42));
+        statements.put("ScoreMapper.selectScoreListByStudentId", params("studentId", 4242));
+        statements.put("ScoreMapper.selectScoreListByTeacher", params("teacherId", 7L, "courseId", 7));
+        statements.put("ScoreMapper.selectScoreListByTeacherAfter",
+                params("teacherId", 7L, "afterCourseId", 100, "afterId", 1, "limit", 20));
+        statements.put("ScoreMapper.countScoreListByStudentIdAndCourseName", params("studentId", 4242));
+        statements.put("ScoreMapper.countScoreListByTeacher", params("teacherId", 7L));
+        statements.put("ScoreMapper.selectScoreExportByCourseId", params("courseId", 42));
+        statements.put("ScoreMapper.selectScoreTenths", params("courseIds", List.of(42, 43)));
+        statements.put("ScoreMapper.selectTranscriptRows", params("studentId", 4242));
+        statements.put("ScoreMapper.selectClassTranscriptRows", params("className", "班级42"));
+        statements.put("ScoreMapper.existsClassTaughtBy", params("teacherId", 7L, "className", "班级42"));
+        statements.put("ScoreMapper.selectCourseRanking", params("courseId", 42));
+        statements.put("ScoreMapper.selectCourseRankEntries", params("courseId", 42));
+        // 学生 / 课程 / 教师 / 用户
+        statements.put("StudentMapper.selectByStudentNo", params("studentNo", "S00004242"));
+        statements.put("StudentMapper.selectByUserId", params("userId", 4242));
+        statements.put("StudentMapper.selectByCourseId", params("courseId", 42));
+        statements.put("StudentMapper.selectOptionsByCourseId", params("courseId", 42));
+        statements.put("StudentMapper.selectDirectoryPage", params("keyword", "S000042"));
+        statements.put("CourseMapper.selectByStudentId", params("studentId", 4242L));
+        statements.put("CourseMapper.selectByTeacherId", params("teacherId", 7L));
+        statements.put("TeacherMapper.selectTeacherInfo", params("userId", 7));
+        statements.put("SysUserMapper.selectByUsername", params("username", "user4242"));
+        statements.put("CourseScoreStatsMapper.rebuildByCourseIds", params("courseIds", List.of(42, 43)));
+
+        assertNoSequentialScans(statements);
+    }
+
+    /**
+     * 学生姓名子串筛选（LIKE '%关键字%'）由 pg_trgm GIN 索引给出候选学生，不扫描 sys_user（未安装 pg_trgm 时跳过）
+     */
+    @Test
+    void nameSearchUsesTrigramIndexes() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT 1 FROM pg_indexes WHERE schemaname = '" + SCHEMA
+                     + "' AND indexname = 'idx_sys_user_real_name_trgm'")) {
+            Assumptions.assumeTrue(rs.next(), "pg_trgm 不可用，跳过三元组索引校验");
+        }
+        Map<String, Map<String, Object>> statements = new LinkedHashMap<>();
+        statements.put("ScoreMapper.selectScoreRowsByTeacherPage", params("teacherId", 7L, "studentName", "name4242"));
+        statements.put("ScoreMapper.selectScoreRowsByTeacherAfter",
+                params("teacherId", 7L, "studentName", "name4242", "afterCourseId", 100, "afterId", 1, "limit", 20));
+        statements.put("ScoreMapper.selectScoreListByTeacherPage", params("teacherId", 7L, "studentName", "name4242"));
+        statements.put("ScoreMapper.countScoreListByTeacher", params("teacherId", 7L, "studentName", "name4242"));
+        statements.put("ScoreMapper.selectScoreListByTeacher", params("teacherId", 7L, "studentName", "name4242"));
+        assertNoSequentialScans(statements);
+    }
+
+    /**
+     * 课程排名SQL与内存排名表一致：未分班（class_name为NULL）的学生只有课程排名，班级排名为空
+     */
+    @Test
+    void courseRankingMatchesRankTableForNullClass() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO sys_user (id, username, password, role, real_name) " +
+                    "SELECT i, 'user' || i, 'x', 'STUDENT', 'name' || i FROM generate_series(60001, 60004) AS i");
+            statement.execute("INSERT INTO student (id, user_id, student_no, class_name) VALUES " +
+                    "(60001, 60001, 'S60001', NULL), (60002, 60002, 'S60002', '一班'), " +
+                    "(60003, 60003, 'S60003', NULL), (60004, 60004, 'S60004', '一班')");
+            statement.execute("INSERT INTO course (id, course_code, course_name, teacher_id, credit) " +
+                    "VALUES (2001, 'C2001', 'course2001', 1, 2)");
+            statement.execute("INSERT INTO score (student_id, course_id, score, exam_time) VALUES " +
+                    "(60001, 2001, 70, DATE '2025-01-10'), (60002, 2001, 80, DATE '2025-01-10'), " +
+                    "(60003, 2001, 90, DATE '2025-01-10'), (60004, 2001, 60, DATE '2025-01-10')");
+        }
+
+        List<ScoreRankEntryDTO> entries = new ArrayList<>();
+        for (Map<String, Object> row : query("org.example.mapper.ScoreMapper.selectCourseRankEntries", params("courseId", 2001))) {
+            ScoreRankEntryDTO entry = new ScoreRankEntryDTO();
+            entry.setStudentId((Integer) row.get("student_id"));
+            entry.setClassName((String) row.get("class_name"));
+            entry.setScoreTenths((Integer) row.get("score_tenths"));
+            entries.add(entry);
+        }
+        ScoreRankTable table = ScoreRankTable.of(entries);
+
+        List<Map<String, Object>> ranking = query("org.example.mapper.ScoreMapper.selectCourseRanking", params("courseId", 2001));
+        assertEquals(4, ranking.size());
+        for (Map<String, Object> row : ranking) {
+            int index = table.indexOf((Integer) row.get("student_id"));
+            int tenths = table.scoreTenthsAt(index);
+            String className = table.classNameAt(index);
+            assertEquals(table.rank(tenths), ((Number) row.get("course_rank")).intValue());
+            if (className == null) {
+                assertNull(row.get("class_rank"), "未分班学生不应有班级排名：" + row);
+                assertNull(row.get("class_percent_rank"));
+            } else {
+                int classRank = table.classRank(className, tenths);
+                assertEquals(classRank, ((Number) row.get("class_rank")).intValue());
+                assertEquals(ScoreRankTable.percentRank(classRank, table.classSize(className)),
+                        ((Number) row.get("class_percent_rank")).doubleValue(), 1e-4);
+            }
+        }
+    }
+
+    private List<Map<String, Object>> query(String statementId, Map<String, Object> parameter) throws SQLException {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+        ParameterHandler handler = new DefaultParameterHandler(mappedStatement, parameter, boundSql);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(boundSql.getSql())) {
+            handler.setParameters(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    Map<String, Object> row = new HashMap<>();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        row.put(meta.getColumnLabel(i), rs.getObject(i));
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void assertNoSequentialScans(Map<String, Map<String, Object>> statements) throws SQLException {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> entry : statements.entrySet()) {
+            JSONArray plan = explain("org.example.mapper." + entry.getKey(), entry.getValue());
+            List<String> scans = new ArrayList<>();
+            collectSequentialScans(plan.getJSONObject(0).getJSONObject("Plan"), scans);
+            if (!scans.isEmpty()) {
+                failures.add(entry.getKey() + " → " + scans);
+            }
+        }
+        assertTrue(failures.isEmpty(), "以下语句在大表上出现顺序扫描：\n" + String.join("\n", failures));
+    }
+
+    private JSONArray explain(String statementId, Map<String, Object> parameter) throws SQLException {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+        String sql = boundSql.getSql();
+        // IPage语句未经分页插件改写，补上LIMIT使计划与实际分页一致
+        if (statementId.endsWith("Page")) {
+            sql = sql + " LIMIT 20";
+        }
+        ParameterHandler handler = new DefaultParameterHandler(mappedStatement, parameter, boundSql);
+        try (PreparedStatement ps = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            handler.setParameters(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return JSON.parseArray(rs.getString(1));
+            }
+        }
+    }
+
+    // 递归收集大表上带筛选条件的顺序扫描，以及score表上的任何顺序扫描
+    private static void collectSequentialScans(JSONObject node, List<String> scans) {
+        String relation = node.getString("Relation Name");
+        if ("Seq Scan".equals(node.getString("Node Type")) && LARGE_TABLES.contains(relation)
+                && (node.containsKey("Filter") || "score".equals(relation))) {
+            scans.add(relation + (node.containsKey("Filter") ? "(" + node.getString("Filter") + ")" : ""));
+        }
+        JSONArray children = node.getJSONArray("Plans");
+        if (children != null) {
+            for (int i = 0; i < children.size(); i++) {
+                collectSequentialScans(children.getJSONObject(i), scans);
+            }
+        }
+    }
+
+    private static Map<String, Object> params(Object... keyValues) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getProperty("sgms.test.db." + name);
+        if (value == null) {
+            value = System.getenv("SGMS_TEST_DB_" + name.toUpperCase());
+        }
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.example.security.JwtClaims;
+import org.example.utils.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT验证基准：旧路径（每次重建密钥+解析器，解析三次）对比新路径（启动时缓存，解析一次）
+ * 运行方式：在IDE中执行main方法，或 mvn test-compile 后以测试classpath启动
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "sgms_secret_2025_key_abc123_def456_ghi789_jkl012";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        jwtUtil.init();
+        token = jwtUtil.generateToken("teacher01", "TEACHER");
+    }
+
+    /**
+     * 旧路径：extractUsername + validateToken（内部再解析用户名与过期时间），共三次HMAC验签
+     */
+    @Benchmark
+    public void legacyTripleParse(Blackhole bh) {
+        String username = legacyParse(token).getSubject();
+        boolean usernameMatch = legacyParse(token).getSubject().equals(username);
+        boolean notExpired = !legacyParse(token).getExpiration().before(new Date());
+        bh.consume(usernameMatch && notExpired);
+    }
+
+    /**
+     * 新路径：缓存的密钥与解析器，单次验签得到不可变声明
+     */
+    @Benchmark
+    public JwtClaims singleParse() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    // 复刻旧实现：每次解析都重新构建HMAC密钥与解析器
+    private static Claims legacyParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerifyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.benchmark;
+
+import org.example.dto.ScoreBinCountDTO;
+import org.example.dto.ScoreDTO;
+import org.example.utils.ScoreBuckets;
+import org.example.utils.ScoreHistogram;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 成绩统计基准：旧路径（List&lt;ScoreDTO&gt;逐行BigDecimal比较/累加）对比getCohortStats的统计内核
+ * （selectScoreTenths按十分位GROUP BY返回的桶计数 → addBin建直方图）。
+ * 分组在数据库完成，内核只处理至多1001行，不随行数增长；两条路径的数据库/网络开销不在本基准内。
+ * 内核路径额外给出分位数与标准差；运行方式同JwtVerifyBenchmark（10M规模需约3G堆）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ScoreStatsBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int rows;
+
+    private List<ScoreDTO> scoreList;
+    private List<ScoreBinCountDTO> binRows;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        scoreList = new ArrayList<>(rows);
+        long[] counts = new long[ScoreHistogram.BINS];
+        for (int i = 0; i < rows; i++) {
+            int value = Math.min(1000, Math.max(0, (int) Math.round(750 + random.nextGaussian() * 120)));
+            ScoreDTO dto = new ScoreDTO();
+            dto.setScore(BigDecimal.valueOf(value, 1));
+            scoreList.add(dto);
+            counts[value]++;
+        }
+        // 与selectScoreTenths的GROUP BY结果一致：只返回非空桶
+        binRows = new ArrayList<>();
+        for (int bin = 0; bin < counts.length; bin++) {
+            if (counts[bin] > 0) {
+                ScoreBinCountDTO row = new ScoreBinCountDTO();
+                row.setBin(bin);
+                row.setCount(counts[bin]);
+                binRows.add(row);
+            }
+        }
+    }
+
+    /**
+     * 旧路径：与重构前getScoreSegmentStats相同的两次遍历（分段计数 + 总分/最值）
+     */
+    @Benchmark
+    public void legacyBigDecimal(Blackhole bh) {
+        long count0To60 = 0;
+        long count60To80 = 0;
+        long count80To100 = 0;
+        for (ScoreDTO scoreDTO : scoreList) {
+            if (scoreDTO.getScore() == null) {
+                continue;
+            }
+            BigDecimal score = scoreDTO.getScore();
+            if (score.compareTo(BigDecimal.valueOf(60)) < 0) {
+                count0To60++;
+            } else if (score.compareTo(BigDecimal.valueOf(80)) < 0) {
+                count60To80++;
+            } else {
+                count80To100++;
+            }
+        }
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal maxScore = BigDecimal.ZERO;
+        BigDecimal minScore = null;
+        long validCount = 0;
+        for (ScoreDTO scoreDTO : scoreList) {
+            if (scoreDTO.getScore() == null) {
+                continue;
+            }
+            BigDecimal score = scoreDTO.getScore();
+            sum = sum.add(score);
+            validCount++;
+            if (maxScore.compareTo(score) < 0) {
+                maxScore = score;
+            }
+            if (minScore == null || minScore.compareTo(score) > 0) {
+                minScore = score;
+            }
+        }
+        BigDecimal avgScore = validCount > 0 ? sum.divide(BigDecimal.valueOf(validCount), 1, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+        bh.consume(count0To60 + count60To80 + count80To100);
+        bh.consume(avgScore);
+        bh.consume(maxScore);
+        bh.consume(minScore);
+    }
+
+    /**
+     * 统计内核：与getCohortStats相同，逐行addBin累加桶计数，再由1001个桶导出均值、最值、分段、分位数与标准差
+     */
+    @Benchmark
+    public void primitiveKernel(Blackhole bh) {
+        ScoreHistogram histogram = new ScoreHistogram();
+        for (ScoreBinCountDTO row : binRows) {
+            histogram.addBin(row.getBin(), row.getCount());
+        }
+        ScoreBuckets buckets = ScoreBuckets.DEFAULT;
+        for (int i = 0; i < buckets.size(); i++) {
+            bh.consume(histogram.countBetween(buckets.fromBin(i), buckets.toBin(i)));
+        }
+        bh.consume(histogram.mean());
+        bh.consume(histogram.minBin());
+        bh.consume(histogram.maxBin());
+        bh.consume(histogram.quantile(0.5));
+        bh.consume(histogram.quantile(0.9));
+        bh.consume(histogram.stdDev());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ScoreStatsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.example.entity.Course;
+import org.example.mapper.CourseMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 课程归属索引：coursesOf合并快照之后单行加载的课程，evict后按新归属重建
+ */
+public class CourseOwnershipCacheTest {
+
+    private CourseMapper courseMapper;
+    private CourseOwnershipCache cache;
+
+    @BeforeAll
+    public static void initTableInfo() {
+        // LambdaQueryWrapper.select需要实体列缓存（不启动Spring时手动初始化）
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Course.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        courseMapper = mock(CourseMapper.class);
+        cache = new CourseOwnershipCache();
+        ReflectionTestUtils.setField(cache, "courseMapper", courseMapper);
+    }
+
+    private static Course course(long id, Long teacherId) {
+        Course course = new Course();
+        course.setId(id);
+        course.setTeacherId(teacherId);
+        return course;
+    }
+
+    @Test
+    public void coursesOfIncludesOverlayCourses() {
+        when(courseMapper.selectList(any())).thenReturn(List.of(course(5, 1L), course(2, 1L), course(3, 2L)));
+        cache.refresh();
+        assertArrayEquals(new int[]{2, 5}, cache.coursesOf(1L));
+
+        // 快照之后新建的课程：ownerOf单行加载后，coursesOf同样可见
+        when(courseMapper.selectOne(any())).thenReturn(course(4, 1L));
+        assertEquals(1L, cache.ownerOf(4));
+        assertArrayEquals(new int[]{2, 4, 5}, cache.coursesOf(1L));
+        assertArrayEquals(new int[]{3}, cache.coursesOf(2L));
+        assertArrayEquals(new int[0], cache.coursesOf(9L));
+    }
+
+    @Test
+    public void evictRebuildsWithNewOwner() {
+        when(courseMapper.selectList(any())).thenReturn(List.of(course(1, 1L), course(2, 1L)));
+        cache.refresh();
+
+        when(courseMapper.selectList(any())).thenReturn(List.of(course(1, 1L), course(2, 2L)));
+        cache.evict(2);
+        assertEquals(2L, cache.ownerOf(2));
+        assertArrayEquals(new int[]{1}, cache.coursesOf(1L));
+        assertArrayEquals(new int[]{2}, cache.coursesOf(2L));
+    }
+}
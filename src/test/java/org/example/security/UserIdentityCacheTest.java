@@ -0,0 +1,79 @@
+package org.example.security;
+
+import org.example.entity.Teacher;
+import org.example.mapper.StudentMapper;
+import org.example.mapper.SysUserMapper;
+import org.example.mapper.TeacherMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户身份缓存：按 userId + 角色 命中，未关联档案的结果不缓存，按用户名失效
+ */
+public class UserIdentityCacheTest {
+
+    private TeacherMapper teacherMapper;
+    private UserIdentityCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        teacherMapper = mock(TeacherMapper.class);
+        cache = new UserIdentityCache();
+        ReflectionTestUtils.setField(cache, "sysUserMapper", mock(SysUserMapper.class));
+        ReflectionTestUtils.setField(cache, "teacherMapper", teacherMapper);
+        ReflectionTestUtils.setField(cache, "studentMapper", mock(StudentMapper.class));
+        ReflectionTestUtils.setField(cache, "ttl", 60000L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        cache.init();
+    }
+
+    private static Teacher teacher(long id) {
+        Teacher teacher = new Teacher();
+        teacher.setId(id);
+        return teacher;
+    }
+
+    @Test
+    public void hitRequiresSameUserIdAndRole() {
+        when(teacherMapper.selectOne(any())).thenReturn(teacher(7L));
+        assertEquals(7L, cache.resolve(1L, "zhang", "ROLE_TEACHER").getTeacherId());
+        assertEquals(7L, cache.resolve(1L, "zhang", "ROLE_TEACHER").getTeacherId());
+        verify(teacherMapper, times(1)).selectOne(any());
+
+        // 同名但userId不同（账号删除后重建）或角色不同：不得复用旧身份
+        when(teacherMapper.selectOne(any())).thenReturn(teacher(9L));
+        assertEquals(9L, cache.resolve(2L, "zhang", "ROLE_TEACHER").getTeacherId());
+        CurrentUser asStudent = cache.resolve(1L, "zhang", "ROLE_STUDENT");
+        assertEquals("ROLE_STUDENT", asStudent.getRole());
+        assertNull(asStudent.getTeacherId());
+    }
+
+    @Test
+    public void unresolvedTeacherIsNotCached() {
+        when(teacherMapper.selectOne(any())).thenReturn(null);
+        assertNull(cache.resolve(1L, "li", "ROLE_TEACHER").getTeacherId());
+
+        // 档案补录后下一次请求即可解析到
+        when(teacherMapper.selectOne(any())).thenReturn(teacher(3L));
+        assertEquals(3L, cache.resolve(1L, "li", "ROLE_TEACHER").getTeacherId());
+    }
+
+    @Test
+    public void evictRemovesAllEntriesOfUsername() {
+        when(teacherMapper.selectOne(any())).thenReturn(teacher(5L));
+        cache.resolve(1L, "wang", "ROLE_TEACHER");
+        cache.evict("wang");
+
+        when(teacherMapper.selectOne(any())).thenReturn(teacher(6L));
+        assertEquals(6L, cache.resolve(1L, "wang", "ROLE_TEACHER").getTeacherId());
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.security;
+
+import org.example.entity.SysUser;
+import org.example.mapper.SysUserMapper;
+import org.example.utils.UserUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户状态快照：库中角色带/不带ROLE_前缀时与Token角色声明（登录时同口径标准化）一致，禁用、删除与角色变更被拒绝
+ */
+public class UserStatusCacheTest {
+
+    private SysUserMapper sysUserMapper;
+    private UserStatusCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        sysUserMapper = mock(SysUserMapper.class);
+        cache = new UserStatusCache();
+        ReflectionTestUtils.setField(cache, "sysUserMapper", sysUserMapper);
+        ReflectionTestUtils.setField(cache, "ttl", 60000L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        cache.init();
+    }
+
+    private void stored(String username, String role, Integer status) {
+        SysUser user = new SysUser();
+        user.setId(1L);
+        user.setRole(role);
+        user.setStatus(status);
+        when(sysUserMapper.selectStatusByUsername(username)).thenReturn(user);
+    }
+
+    // 与登录签发Token相同：JwtUtil以 ROLE_ + 标准化角色 写入role声明
+    private static String tokenRole(String storedRole) {
+        return "ROLE_" + UserUtils.normalizeRole(storedRole);
+    }
+
+    @Test
+    public void normalizeRoleStripsPrefixCaseAndWhitespace() {
+        assertEquals("TEACHER", UserUtils.normalizeRole("TEACHER"));
+        assertEquals("TEACHER", UserUtils.normalizeRole("ROLE_TEACHER"));
+        assertEquals("STUDENT", UserUtils.normalizeRole(" role_student "));
+        assertEquals("", UserUtils.normalizeRole(null));
+        assertEquals("ROLE_ADMIN", UserUtils.roleAuthority("Role_Admin"));
+    }
+
+    @Test
+    public void storedRoleWithPrefixMatchesTokenClaim() {
+        stored("teacher1", "ROLE_TEACHER", 1);
+        assertEquals("ROLE_TEACHER", tokenRole("ROLE_TEACHER"));
+        assertTrue(cache.isActive("teacher1", tokenRole("ROLE_TEACHER")));
+
+        stored("student1", " student ", null);
+        assertTrue(cache.isActive("student1", tokenRole(" student ")));
+    }
+
+    @Test
+    public void disabledMissingAndChangedRoleAreRejected() {
+        stored("disabled", "TEACHER", 0);
+        assertFalse(cache.isActive("disabled", "ROLE_TEACHER"));
+
+        assertFalse(cache.isActive("missing", "ROLE_TEACHER"));
+
+        stored("changed", "ROLE_STUDENT", 1);
+        assertFalse(cache.isActive("changed", "ROLE_TEACHER"));
+    }
+
+    @Test
+    public void evictReloadsSnapshot() {
+        stored("teacher2", "TEACHER", 1);
+        assertTrue(cache.isActive("teacher2", "ROLE_TEACHER"));
+        assertTrue(cache.isActive("teacher2", "ROLE_TEACHER"));
+        verify(sysUserMapper, times(1)).selectStatusByUsername("teacher2");
+
+        stored("teacher2", "TEACHER", 0);
+        cache.evict("teacher2");
+        assertFalse(cache.isActive("teacher2", "ROLE_TEACHER"));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 学分加权绩点：及格线与满分边界、零学分课程、学期划分（1月归入上一学年第一学期）
+ */
+public class GpaAccumulatorTest {
+
+    private static void assertDecimal(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    public void gradePointBoundaries() {
+        assertEquals(new BigDecimal("0.00"), GpaAccumulator.gradePoint(new BigDecimal("0")));
+        assertEquals(new BigDecimal("0.00"), GpaAccumulator.gradePoint(new BigDecimal("59.9")));
+        assertEquals(new BigDecimal("1.00"), GpaAccumulator.gradePoint(new BigDecimal("60.0")));
+        assertEquals(new BigDecimal("1.00"), GpaAccumulator.gradePoint(new BigDecimal("60")));
+        assertEquals(new BigDecimal("3.55"), GpaAccumulator.gradePoint(new BigDecimal("85.5")));
+        assertEquals(new BigDecimal("5.00"), GpaAccumulator.gradePoint(new BigDecimal("100.0")));
+        assertNull(GpaAccumulator.gradePoint(null));
+    }
+
+    @Test
+    public void creditWeightedGpa() {
+        GpaAccumulator accumulator = new GpaAccumulator();
+        accumulator.add(new BigDecimal("3"), new BigDecimal("90.0"));     // 4.00 × 3
+        accumulator.add(new BigDecimal("2.0"), new BigDecimal("59.9"));   // 0.00 × 2，不计入已获学分
+        accumulator.add(new BigDecimal("1"), new BigDecimal("60.0"));     // 1.00 × 1
+        // (12 + 0 + 1) / 6 = 2.1666...
+        assertEquals(new BigDecimal("2.17"), accumulator.gpa());
+        assertDecimal("6", accumulator.getAttemptedCredits());
+        assertDecimal("4", accumulator.getEarnedCredits());
+        assertEquals(3, accumulator.getCourseCount());
+    }
+
+    @Test
+    public void zeroCreditAndMissingValuesAreIgnored() {
+        GpaAccumulator accumulator = new GpaAccumulator();
+        accumulator.add(BigDecimal.ZERO, new BigDecimal("100.0"));
+        accumulator.add(new BigDecimal("-1"), new BigDecimal("100.0"));
+        accumulator.add(null, new BigDecimal("100.0"));
+        accumulator.add(new BigDecimal("2"), null);
+        assertNull(accumulator.gpa());
+        assertEquals(0, accumulator.getCourseCount());
+        assertDecimal("0", accumulator.getAttemptedCredits());
+
+        // 零学分课程不稀释其他课程的绩点
+        accumulator.add(new BigDecimal("4"), new BigDecimal("100.0"));
+        assertEquals(new BigDecimal("5.00"), accumulator.gpa());
+        assertEquals(1, accumulator.getCourseCount());
+    }
+
+    @Test
+    public void termOfSplitsAcademicYear() {
+        assertEquals("2024-2025-1", GpaAccumulator.termOf(LocalDate.of(2024, 9, 1)));
+        assertEquals("2024-2025-1", GpaAccumulator.termOf(LocalDate.of(2024, 12, 31)));
+        // 1月期末考试属于上一学年第一学期
+        assertEquals("2024-2025-1", GpaAccumulator.termOf(LocalDate.of(2025, 1, 15)));
+        assertEquals("2024-2025-2", GpaAccumulator.termOf(LocalDate.of(2025, 2, 1)));
+        assertEquals("2024-2025-2", GpaAccumulator.termOf(LocalDate.of(2025, 8, 31)));
+        assertNull(GpaAccumulator.termOf(null));
+    }
+}
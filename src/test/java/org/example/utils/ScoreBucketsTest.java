@@ -0,0 +1,80 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 成绩分段：默认分段、按宽度/分界点构建、参数校验，以及与直方图配合时100分计入最后一段
+ */
+public class ScoreBucketsTest {
+
+    @Test
+    public void defaultBuckets() {
+        ScoreBuckets buckets = ScoreBuckets.of(null, null);
+        assertSame(ScoreBuckets.DEFAULT, buckets);
+        assertSame(ScoreBuckets.DEFAULT, ScoreBuckets.of(null, List.of()));
+        assertEquals(3, buckets.size());
+        assertEquals("0-60", buckets.label(0));
+        assertEquals("60-80", buckets.label(1));
+        assertEquals("80-100", buckets.label(2));
+        assertEquals(0, buckets.fromBin(0));
+        assertEquals(600, buckets.toBin(0));
+        assertEquals(ScoreHistogram.BINS, buckets.toBin(2));
+    }
+
+    @Test
+    public void widthBuckets() {
+        ScoreBuckets tens = ScoreBuckets.of(new BigDecimal("10"), null);
+        assertEquals(10, tens.size());
+        assertEquals(100, tens.fromBin(1));
+        assertEquals("90-100", tens.label(9));
+
+        // 宽度不整除100时最后一段较短
+        ScoreBuckets thirties = ScoreBuckets.of(new BigDecimal("30"), null);
+        assertEquals(4, thirties.size());
+        assertEquals("90-100", thirties.label(3));
+
+        assertEquals(100, ScoreBuckets.of(BigDecimal.ONE, null).size());
+    }
+
+    @Test
+    public void explicitEdgesTakePrecedence() {
+        ScoreBuckets buckets = ScoreBuckets.of(new BigDecimal("10"), List.of(new BigDecimal("60"), new BigDecimal("85.5")));
+        assertEquals(3, buckets.size());
+        assertEquals("60-85.5", buckets.label(1));
+        assertEquals(855, buckets.toBin(1));
+    }
+
+    @Test
+    public void invalidDefinitionsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoreBuckets.of(null, List.of(new BigDecimal("80"), new BigDecimal("60"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoreBuckets.of(null, List.of(new BigDecimal("60"), new BigDecimal("60"))));
+        assertThrows(IllegalArgumentException.class, () -> ScoreBuckets.of(new BigDecimal("0.05"), null));
+        assertThrows(IllegalArgumentException.class, () -> ScoreBuckets.of(BigDecimal.ZERO, null));
+        assertThrows(IllegalArgumentException.class, () -> ScoreBuckets.of(new BigDecimal("100"), null));
+        assertThrows(IllegalArgumentException.class, () -> ScoreBuckets.of(null, List.of(new BigDecimal("100"))));
+        // 宽度0.5分即200段，超过上限
+        assertThrows(IllegalArgumentException.class, () -> ScoreBuckets.of(new BigDecimal("0.5"), null));
+    }
+
+    @Test
+    public void bucketCountsCoverHistogramIncludingFullMarks() {
+        ScoreHistogram histogram = new ScoreHistogram();
+        for (String score : new String[]{"0", "59.9", "60", "79.9", "80", "100"}) {
+            histogram.add(new BigDecimal(score));
+        }
+        ScoreBuckets buckets = ScoreBuckets.DEFAULT;
+        long[] expected = {2, 2, 2};
+        for (int i = 0; i < buckets.size(); i++) {
+            assertEquals(expected[i], histogram.countBetween(buckets.fromBin(i), buckets.toBin(i)), buckets.label(i));
+        }
+    }
+}
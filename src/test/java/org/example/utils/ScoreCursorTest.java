@@ -0,0 +1,61 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 游标分页令牌：编码/解码往返、空令牌表示首页、格式错误的令牌统一抛出IllegalArgumentException
+ */
+public class ScoreCursorTest {
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void encodeDecodeRoundTrip() {
+        for (int[] pair : new int[][]{{1, 1}, {42, 123456}, {Integer.MAX_VALUE, Integer.MAX_VALUE}}) {
+            String encoded = ScoreCursor.encode(pair[0], pair[1]);
+            // URL安全且无填充，可直接作为查询参数
+            assertFalse(encoded.contains("=") || encoded.contains("+") || encoded.contains("/"), encoded);
+            ScoreCursor cursor = ScoreCursor.decode(encoded);
+            assertEquals(pair[0], cursor.getCourseId());
+            assertEquals(pair[1], cursor.getId());
+        }
+        assertEquals(7, ScoreCursor.decode("  " + ScoreCursor.encode(7, 8) + " ").getCourseId());
+    }
+
+    @Test
+    public void blankTokenMeansFirstPage() {
+        for (String blank : new String[]{null, "", "   "}) {
+            ScoreCursor cursor = ScoreCursor.decode(blank);
+            assertNull(cursor.getCourseId());
+            assertNull(cursor.getId());
+        }
+    }
+
+    @Test
+    public void malformedTokensAreRejected() {
+        String[] malformed = {
+                "!!!",                  // 非Base64
+                token("12345"),         // 缺少分隔符
+                token(":5"),            // 缺少课程ID
+                token("5:"),            // 缺少成绩ID
+                token("a:5"),           // 非数字
+                token("1:2:3"),         // 多余字段
+                token("null:5"),        // 编码空值得到的令牌
+                token("99999999999:1")  // 超出int范围
+        };
+        for (String token : malformed) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ScoreCursor.decode(token), token);
+            assertEquals("无效的分页游标", e.getMessage());
+        }
+    }
+}
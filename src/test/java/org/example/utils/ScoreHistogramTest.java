@@ -0,0 +1,101 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 成绩直方图：分位数（对照PostgreSQL percentile_cont手算值）、均值、总体标准差、桶换算与合并
+ */
+public class ScoreHistogramTest {
+
+    private static ScoreHistogram of(String... scores) {
+        ScoreHistogram histogram = new ScoreHistogram();
+        for (String score : scores) {
+            histogram.add(new BigDecimal(score));
+        }
+        return histogram;
+    }
+
+    @Test
+    public void emptyHistogramHasNoStatistics() {
+        ScoreHistogram histogram = new ScoreHistogram();
+        assertEquals(0, histogram.getCount());
+        assertNull(histogram.mean());
+        assertNull(histogram.quantile(0.5));
+        assertNull(histogram.stdDev());
+        assertEquals(-1, histogram.minBin());
+        assertEquals(-1, histogram.maxBin());
+    }
+
+    @Test
+    public void quantileInterpolatesLikePercentileCont() {
+        // SELECT percentile_cont(q) WITHIN GROUP (ORDER BY v) FROM unnest('{60,70,80,90}'::numeric[]) v
+        ScoreHistogram histogram = of("60.0", "70.0", "80.0", "90.0");
+        assertEquals(new BigDecimal("60.00"), histogram.quantile(0));
+        assertEquals(new BigDecimal("75.00"), histogram.quantile(0.5));
+        assertEquals(new BigDecimal("87.00"), histogram.quantile(0.9));
+        assertEquals(new BigDecimal("90.00"), histogram.quantile(1));
+    }
+
+    @Test
+    public void quantileWithTiesAndSingleValue() {
+        assertEquals(new BigDecimal("70.00"), of("70.0", "70.0", "70.0", "100.0").quantile(0.5));
+        assertEquals(new BigDecimal("85.00"), of("70.0", "70.0", "100.0", "100.0").quantile(0.5));
+        assertEquals(new BigDecimal("42.50"), of("42.5").quantile(0.9));
+        // 相邻两个0.1分取值的中点保留到0.01分
+        assertEquals(new BigDecimal("60.15"), of("60.1", "60.2").quantile(0.5));
+    }
+
+    @Test
+    public void meanAndPopulationStdDev() {
+        ScoreHistogram histogram = of("60.0", "70.0", "80.0", "90.0");
+        assertEquals(new BigDecimal("75.0"), histogram.mean());
+        // 离差平方和 500 / 4 = 125，sqrt(125) = 11.1803...
+        assertEquals(new BigDecimal("11.18"), histogram.stdDev());
+        assertEquals(new BigDecimal("0.00"), of("88.8", "88.8").stdDev());
+        // 均值四舍五入到0.1分：(60.0 + 60.1 + 60.1) / 3 = 60.0666...
+        assertEquals(new BigDecimal("60.1"), of("60.0", "60.1", "60.1").mean());
+    }
+
+    @Test
+    public void toBinRoundsToTenthsAndRejectsOutOfRange() {
+        assertEquals(0, ScoreHistogram.toBin(new BigDecimal("0")));
+        assertEquals(600, ScoreHistogram.toBin(new BigDecimal("59.95")));
+        assertEquals(1000, ScoreHistogram.toBin(new BigDecimal("100.0")));
+        assertThrows(IllegalArgumentException.class, () -> ScoreHistogram.toBin(new BigDecimal("100.1")));
+        assertThrows(IllegalArgumentException.class, () -> ScoreHistogram.toBin(new BigDecimal("-0.1")));
+        assertEquals(new BigDecimal("59.9"), ScoreHistogram.toScore(599));
+    }
+
+    @Test
+    public void addBinFromCountsAndMergeAgree() {
+        ScoreHistogram fromValues = new ScoreHistogram();
+        fromValues.addBin(599, 1);
+        fromValues.addBin(600, 1);
+        fromValues.addBin(1000, 2);
+        assertEquals(4, fromValues.getCount());
+        assertEquals(599, fromValues.minBin());
+        assertEquals(1000, fromValues.maxBin());
+        assertEquals(1, fromValues.countBetween(0, 600));
+        assertEquals(3, fromValues.countBetween(600, ScoreHistogram.BINS));
+
+        Integer[] counts = new Integer[ScoreHistogram.BINS];
+        counts[599] = 1;
+        counts[600] = 1;
+        ScoreHistogram fromCounts = ScoreHistogram.fromCounts(counts);
+        ScoreHistogram other = new ScoreHistogram();
+        other.addBin(1000, 2);
+        fromCounts.merge(other);
+
+        assertEquals(fromValues.getCount(), fromCounts.getCount());
+        assertEquals(fromValues.sumTenths(), fromCounts.sumTenths());
+        assertEquals(fromValues.quantile(0.5), fromCounts.quantile(0.5));
+        assertEquals(fromValues.stdDev(), fromCounts.stdDev());
+        assertEquals(0, ScoreHistogram.fromCounts(null).getCount());
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.utils;
+
+import org.example.dto.ScoreRankEntryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 排名表：名次/百分位名次与SQL RANK()/PERCENT_RANK()（分数降序）逐人对照，含并列、单人班级与无班级学生
+ */
+public class ScoreRankTableTest {
+
+    private static ScoreRankEntryDTO entry(int studentId, String className, int tenths) {
+        ScoreRankEntryDTO entry = new ScoreRankEntryDTO();
+        entry.setStudentId(studentId);
+        entry.setClassName(className);
+        entry.setScoreTenths(tenths);
+        return entry;
+    }
+
+    // RANK() OVER (ORDER BY score DESC)：严格高于该分数的人数 + 1
+    private static int sqlRank(List<ScoreRankEntryDTO> group, int tenths) {
+        int higher = 0;
+        for (ScoreRankEntryDTO e : group) {
+            if (e.getScoreTenths() > tenths) {
+                higher++;
+            }
+        }
+        return higher + 1;
+    }
+
+    @Test
+    public void tiesShareRankAndSkipFollowingRanks() {
+        ScoreRankTable table = ScoreRankTable.of(List.of(
+                entry(1, "一班", 900), entry(2, "一班", 900), entry(3, "二班", 850), entry(4, "一班", 600)));
+        assertEquals(1, table.rank(900));
+        assertEquals(3, table.rank(850));
+        assertEquals(4, table.rank(600));
+        assertEquals(1, table.classRank("一班", 900));
+        assertEquals(3, table.classRank("一班", 600));
+        // PERCENT_RANK：(3 - 1) / (4 - 1)
+        assertEquals(2.0 / 3, ScoreRankTable.percentRank(table.rank(850), table.size()), 1e-12);
+        assertEquals(1.0, ScoreRankTable.percentRank(table.rank(600), table.size()), 1e-12);
+    }
+
+    @Test
+    public void singleStudentClassAndCourse() {
+        ScoreRankTable table = ScoreRankTable.of(List.of(entry(7, "三班", 420), entry(8, "四班", 990)));
+        assertEquals(1, table.classRank("三班", 420));
+        assertEquals(1, table.classSize("三班"));
+        // 仅1人时PERCENT_RANK()为0
+        assertEquals(0.0, ScoreRankTable.percentRank(1, 1));
+
+        ScoreRankTable single = ScoreRankTable.of(List.of(entry(9, "五班", 0)));
+        assertEquals(1, single.size());
+        assertEquals(1, single.rank(0));
+    }
+
+    @Test
+    public void studentWithoutClassRanksInCourseOnly() {
+        ScoreRankTable table = ScoreRankTable.of(List.of(entry(1, null, 700), entry(2, "一班", 800), entry(3, null, 900)));
+        int index = table.indexOf(1);
+        assertTrue(index >= 0);
+        assertNull(table.classNameAt(index));
+        assertEquals(700, table.scoreTenthsAt(index));
+        assertEquals(3, table.rank(700));
+        assertEquals(0, table.classRank(null, 700));
+        assertEquals(0, table.classSize(null));
+        assertEquals(0, table.classRank("不存在的班级", 700));
+        assertTrue(table.indexOf(4) < 0);
+    }
+
+    @Test
+    public void emptyTableAndUnsortedInput() {
+        ScoreRankTable empty = ScoreRankTable.of(List.of());
+        assertEquals(0, empty.size());
+        assertTrue(empty.indexOf(1) < 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoreRankTable.of(List.of(entry(2, "一班", 800), entry(1, "一班", 700))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoreRankTable.of(List.of(entry(1, "一班", 800), entry(1, "一班", 700))));
+    }
+
+    @Test
+    public void matchesRankAndPercentRankForRandomCourse() {
+        Random random = new Random(42);
+        String[] classes = {"一班", "二班", "三班", null};
+        List<ScoreRankEntryDTO> entries = new ArrayList<>();
+        int studentId = 0;
+        for (int i = 0; i < 500; i++) {
+            studentId += 1 + random.nextInt(3);
+            // 分数集中在少数取值上，制造大量并列
+            entries.add(entry(studentId, classes[random.nextInt(classes.length)], 500 + random.nextInt(20) * 25));
+        }
+        ScoreRankTable table = ScoreRankTable.of(entries);
+        for (ScoreRankEntryDTO e : entries) {
+            int index = table.indexOf(e.getStudentId());
+            int tenths = table.scoreTenthsAt(index);
+            assertEquals(e.getScoreTenths(), tenths);
+
+            int expectedRank = sqlRank(entries, tenths);
+            assertEquals(expectedRank, table.rank(tenths));
+            assertEquals((double) (expectedRank - 1) / (entries.size() - 1),
+                    ScoreRankTable.percentRank(table.rank(tenths), table.size()), 1e-12);
+
+            if (e.getClassName() != null) {
+                List<ScoreRankEntryDTO> sameClass = entries.stream()
+                        .filter(o -> Objects.equals(o.getClassName(), e.getClassName())).toList();
+                assertEquals(sqlRank(sameClass, tenths), table.classRank(e.getClassName(), tenths));
+                assertEquals(sameClass.size(), table.classSize(e.getClassName()));
+            }
+        }
+    }
+}